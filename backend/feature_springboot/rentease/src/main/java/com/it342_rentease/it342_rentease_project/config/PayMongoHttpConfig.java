@@ -0,0 +1,64 @@
+package com.it342_rentease.it342_rentease_project.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// One pooled, keep-alive HTTP client shared by every PayMongo call, so checkouts reuse
+// TLS connections instead of handshaking per request.
+@Configuration
+public class PayMongoHttpConfig {
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager payMongoConnectionManager(
+            @Value("${paymongo.http.max-connections:50}") int maxConnections,
+            @Value("${paymongo.http.max-connections-per-route:20}") int maxConnectionsPerRoute,
+            @Value("${paymongo.http.connect-timeout-ms:3000}") long connectTimeoutMs,
+            @Value("${paymongo.http.read-timeout-ms:10000}") long readTimeoutMs) {
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.ofMilliseconds(connectTimeoutMs))
+                        .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .build())
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient payMongoHttpClient(
+            @Qualifier("payMongoConnectionManager") PoolingHttpClientConnectionManager connectionManager,
+            @Value("${paymongo.http.pool-timeout-ms:2000}") long poolTimeoutMs,
+            @Value("${paymongo.http.read-timeout-ms:10000}") long readTimeoutMs) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        // How long a request may wait for a free pooled connection
+                        .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolTimeoutMs))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                        .build())
+                .evictIdleConnections(TimeValue.ofSeconds(30))
+                .evictExpiredConnections()
+                .build();
+    }
+
+    // Exposes httpcomponents.httpclient.pool.* gauges (leased, available, pending) tagged httpclient=paymongo
+    @Bean
+    public MeterBinder payMongoConnectionPoolMetrics(
+            @Qualifier("payMongoConnectionManager") PoolingHttpClientConnectionManager connectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "paymongo");
+    }
+}
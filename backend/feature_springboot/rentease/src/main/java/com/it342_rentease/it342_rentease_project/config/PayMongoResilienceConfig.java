@@ -0,0 +1,86 @@
+package com.it342_rentease.it342_rentease_project.config;
+
+import com.it342_rentease.it342_rentease_project.service.RetryBudget;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedRetryMetrics;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// Circuit breaker, bulkhead and retry budget for PayMongo calls. Instances are created by
+// PayMongoGatewayGuard; state is published as resilience4j.* meters.
+@Configuration
+public class PayMongoResilienceConfig {
+
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry(
+            @Value("${paymongo.resilience.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${paymongo.resilience.slow-call-threshold-ms:5000}") long slowCallThresholdMs,
+            @Value("${paymongo.resilience.sliding-window-size:20}") int slidingWindowSize,
+            @Value("${paymongo.resilience.open-state-ms:30000}") long openStateMs) {
+        return CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(80)
+                .slowCallDurationThreshold(Duration.ofMillis(slowCallThresholdMs))
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(Math.max(1, slidingWindowSize / 2))
+                .waitDurationInOpenState(Duration.ofMillis(openStateMs))
+                .permittedNumberOfCallsInHalfOpenState(3)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .build());
+    }
+
+    @Bean
+    public BulkheadRegistry bulkheadRegistry(
+            @Value("${paymongo.resilience.max-concurrent-calls:20}") int maxConcurrentCalls) {
+        // No waiting: when the gateway is saturated callers fail fast instead of parking threads
+        return BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+    }
+
+    @Bean
+    public RetryRegistry retryRegistry() {
+        return RetryRegistry.ofDefaults();
+    }
+
+    @Bean
+    public RetryBudget payMongoRetryBudget(
+            @Value("${paymongo.resilience.retry-budget-ratio:0.2}") double ratio,
+            @Value("${paymongo.resilience.retry-budget-max:10}") double maxTokens) {
+        return new RetryBudget(ratio, maxTokens);
+    }
+
+    @Bean
+    public MeterBinder circuitBreakerMetrics(CircuitBreakerRegistry circuitBreakerRegistry) {
+        return TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry);
+    }
+
+    @Bean
+    public MeterBinder bulkheadMetrics(BulkheadRegistry bulkheadRegistry) {
+        return TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry);
+    }
+
+    @Bean
+    public MeterBinder retryMetrics(RetryRegistry retryRegistry) {
+        return TaggedRetryMetrics.ofRetryRegistry(retryRegistry);
+    }
+
+    @Bean
+    public MeterBinder payMongoRetryBudgetMetrics(RetryBudget payMongoRetryBudget) {
+        return registry -> Gauge.builder("paymongo.retry.budget.tokens", payMongoRetryBudget, RetryBudget::available)
+                .description("Retries PayMongo calls may still spend")
+                .register(registry);
+    }
+}
@@ -0,0 +1,44 @@
+package com.it342_rentease.it342_rentease_project.config;
+
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+
+@Configuration
+public class PaymentReconciliationConfig {
+
+    // Workers for one reconciliation page. The job submits at most one page at a time,
+    // so the queue only needs to hold a page.
+    @Bean(name = "paymentReconciliationExecutor")
+    public ThreadPoolTaskExecutor paymentReconciliationExecutor(
+            @Value("${payment.reconciliation.concurrency:4}") int concurrency,
+            @Value("${payment.reconciliation.page-size:100}") int pageSize) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(pageSize);
+        executor.setThreadNamePrefix("payment-reconcile-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    // Caps gateway lookups per second so a large backlog cannot eat the PayMongo rate limit
+    // that checkouts depend on. Workers wait about one refresh period for a permit; a lookup
+    // that still gets none is deferred to the next run.
+    @Bean
+    public RateLimiter paymentReconciliationRateLimiter(
+            @Value("${payment.reconciliation.max-requests-per-second:5}") int maxRequestsPerSecond,
+            @Value("${payment.reconciliation.permit-timeout-ms:1500}") long permitTimeoutMs) {
+        return RateLimiter.of("payment-reconciliation", RateLimiterConfig.custom()
+                .limitForPeriod(maxRequestsPerSecond)
+                .limitRefreshPeriod(Duration.ofSeconds(1))
+                .timeoutDuration(Duration.ofMillis(permitTimeoutMs))
+                .build());
+    }
+}
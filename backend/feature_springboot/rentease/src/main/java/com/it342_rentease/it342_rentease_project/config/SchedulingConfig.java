@@ -0,0 +1,12 @@
+package com.it342_rentease.it342_rentease_project.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Enables @Scheduled background jobs such as StorageDeletionWorker. The jobs share the
+// pool sized by spring.task.scheduling.pool.size, so a long PaymentReconciliationJob run
+// does not hold up the webhook and cleanup workers.
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -0,0 +1,64 @@
+package com.it342_rentease.it342_rentease_project.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Data fixes that ddl-auto=update cannot do on its own, run at startup after Hibernate has
+// updated the schema. Every step is idempotent so it can run on each start. PostgreSQL only;
+// other databases (the H2 test slices) start from an empty schema and need none of this.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SchemaMigrations implements ApplicationRunner {
+
+    record Step(String name, List<String> statements) {
+    }
+
+    static final List<Step> STEPS = List.of(
+            // Hibernate's attempt to add uk_payment_intent_id fails while duplicates exist. Keep one
+            // row per intent (Paid first, then the newest), then add the constraint ourselves.
+            new Step("payment intent unique", List.of("""
+                    delete from payment
+                    where payment_id in (
+                        select payment_id from (
+                            select payment_id, row_number() over (
+                                partition by payment_intent_id
+                                order by case when status = 'Paid' then 0 else 1 end, payment_id desc) as rank
+                            from payment
+                            where payment_intent_id is not null) ranked
+                        where rank > 1)
+                    """, """
+                    do $$
+                    begin
+                        if not exists (select 1 from pg_constraint where conname = 'uk_payment_intent_id') then
+                            alter table payment add constraint uk_payment_intent_id unique (payment_intent_id);
+                        end if;
+                    end $$
+                    """))
+    );
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (!"PostgreSQL".equals(database)) {
+            return;
+        }
+        for (Step step : STEPS) {
+            for (String statement : step.statements()) {
+                jdbcTemplate.execute(statement);
+            }
+            System.out.println("Schema migration applied: " + step.name());
+        }
+    }
+}
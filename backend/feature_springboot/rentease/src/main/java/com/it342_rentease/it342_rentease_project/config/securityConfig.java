@@ -5,12 +5,15 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.client.RestTemplate;
@@ -18,6 +21,8 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import com.it342_rentease.it342_rentease_project.security.JwtFilter;
+import com.it342_rentease.it342_rentease_project.security.PasswordHashingOverloadedException;
+import com.it342_rentease.it342_rentease_project.security.RateLimitFilter;
 import com.it342_rentease.it342_rentease_project.service.OwnerDetailsService;
 
 import org.springframework.http.HttpMethod;
@@ -29,6 +34,9 @@ public class securityConfig {
     @Autowired
     private JwtFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
     @Bean
     public SecurityFilterChain defaultSecurityFilterChain(HttpSecurity http) throws Exception {
         return http
@@ -62,6 +70,7 @@ public class securityConfig {
                         .sessionCreationPolicy(SessionCreationPolicy.STATELESS) // Use stateless sessions for JWT
                 )
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class) // Add JWT filter
+                .addFilterAfter(rateLimitFilter, JwtFilter.class) // Needs the verified token for per-user limits
                 .build();
     }
 
@@ -79,11 +88,6 @@ public class securityConfig {
         return source;
     }
 
-    @Bean
-    public BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
-
     @Bean
     public AuthenticationManager authenticationManager(
             AuthenticationConfiguration config,
@@ -92,10 +96,29 @@ public class securityConfig {
     }
 
     @Bean
-    public DaoAuthenticationProvider daoAuthenticationProvider(OwnerDetailsService ownerDetailsService) {
-        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+    public DaoAuthenticationProvider daoAuthenticationProvider(OwnerDetailsService ownerDetailsService,
+                                                               PasswordEncoder passwordEncoder) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider() {
+            // The password already matched; a shed rehash must not fail the login (same as the
+            // renter path). The old hash stays and is upgraded on a later login.
+            @Override
+            protected Authentication createSuccessAuthentication(Object principal, Authentication authentication,
+                                                                 UserDetails user) {
+                try {
+                    return super.createSuccessAuthentication(principal, authentication, user);
+                } catch (PasswordHashingOverloadedException e) {
+                    System.err.println("Skipping password rehash for owner " + user.getUsername() + ": " + e.getMessage());
+                    UsernamePasswordAuthenticationToken result = UsernamePasswordAuthenticationToken.authenticated(
+                            principal, authentication.getCredentials(), user.getAuthorities());
+                    result.setDetails(authentication.getDetails());
+                    return result;
+                }
+            }
+        };
         provider.setUserDetailsService(ownerDetailsService);
-        provider.setPasswordEncoder(passwordEncoder()); // use your existing password encoder
+        provider.setPasswordEncoder(passwordEncoder); // BoundedPasswordEncoder
+        // Rehashes on login when password.hashing.bcrypt-strength changes
+        provider.setUserDetailsPasswordService(ownerDetailsService);
         return provider;
     }
 
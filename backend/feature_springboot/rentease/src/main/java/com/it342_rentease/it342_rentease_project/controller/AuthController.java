@@ -3,7 +3,12 @@ package com.it342_rentease.it342_rentease_project.controller;
 import com.it342_rentease.it342_rentease_project.dto.*;
 import com.it342_rentease.it342_rentease_project.model.Owner;
 import com.it342_rentease.it342_rentease_project.repository.OwnerRepository;
+import com.it342_rentease.it342_rentease_project.repository.PrincipalRecord;
+import com.it342_rentease.it342_rentease_project.security.JwtPrincipal;
 import com.it342_rentease.it342_rentease_project.security.JwtUtils;
+import com.it342_rentease.it342_rentease_project.security.TokenDenylist;
+import com.it342_rentease.it342_rentease_project.service.PrincipalDirectory;
+import com.it342_rentease.it342_rentease_project.service.RefreshTokenService;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -31,6 +36,15 @@ public class AuthController {
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private TokenDenylist tokenDenylist;
+
+    @Autowired
+    private PrincipalDirectory principalDirectory;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
 
     @GetMapping
     public ResponseEntity<?> getAllOwners() {
@@ -47,6 +61,8 @@ public class AuthController {
         owner.setUsername(request.getUsername());
         owner.setPassword(passwordEncoder.encode(request.getPassword()));
         ownerRepository.save(owner);
+        // Drop a cached miss for this username
+        principalDirectory.invalidate(owner.getUsername());
         return ResponseEntity.ok("Registration successful");
     }
 
@@ -55,25 +71,39 @@ public class AuthController {
         authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword()));
         String token = jwtUtils.generateToken(request.getUsername());
-        return ResponseEntity.ok(new AuthResponse(token));
+        String refreshToken = refreshTokenService.issue(JwtUtils.OWNER, request.getUsername());
+        return ResponseEntity.ok(new AuthResponse(token, refreshToken));
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(
+            @RequestAttribute(name = JwtPrincipal.REQUEST_ATTRIBUTE, required = false) JwtPrincipal principal,
+            @RequestBody(required = false) Map<String, String> body) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid token");
+        }
+        tokenDenylist.revoke(principal);
+        if (body != null) {
+            refreshTokenService.revoke(body.get("refreshToken"));
+        }
+        return ResponseEntity.noContent().build();
     }
 
 @GetMapping("/current-user")
-public ResponseEntity<?> getCurrentUser(@RequestHeader("Authorization") String authorizationHeader) {
-    String token = authorizationHeader.replace("Bearer ", "");
-    
-    // Validate the token using your JWT utility
-    String username = jwtUtils.extractUsername(token);
+public ResponseEntity<?> getCurrentUser(
+        @RequestAttribute(name = JwtPrincipal.REQUEST_ATTRIBUTE, required = false) JwtPrincipal principal) {
+    // Claims were verified once by JwtFilter
+    String username = principal != null ? principal.getUsername() : null;
     
     if (username != null) {
-        // Find the Owner by the username
-        Owner owner = ownerRepository.findByUsername(username).orElse(null);
+        // Served from the principal cache; updateProfile invalidates it
+        PrincipalRecord owner = principalDirectory.findOwner(username).orElse(null);
         
         if (owner != null) {
             // Return both username and ownerId
             Map<String, Object> response = new HashMap<>();
             response.put("username", owner.getUsername());
-            response.put("ownerId", owner.getOwnerId());
+            response.put("ownerId", owner.getId());
             
             return ResponseEntity.ok(response); // Return username and ownerId as a JSON object
         } else {
@@ -87,33 +117,65 @@ public ResponseEntity<?> getCurrentUser(@RequestHeader("Authorization") String a
 
     @DeleteMapping("/{ownerId}")
     public ResponseEntity<?> deleteOwner(@PathVariable Long ownerId) {
-        if (!ownerRepository.existsById(ownerId)) {
+        Owner owner = ownerRepository.findById(ownerId).orElse(null);
+        if (owner == null) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Owner not found");
         }
     
         ownerRepository.deleteById(ownerId); // This will also delete rooms because of cascade
+        principalDirectory.invalidate(owner.getUsername());
+        tokenDenylist.revokeAllFor(owner.getUsername());
+        refreshTokenService.revokeAllFor(JwtUtils.OWNER, owner.getUsername());
         return ResponseEntity.noContent().build();
     }
 
     @PatchMapping("/update-profile")
-public ResponseEntity<?> updateProfile(@RequestHeader("Authorization") String authHeader, @RequestBody Map<String, String> updates) {
-    String token = authHeader.replace("Bearer ", "");
-    String username = jwtUtils.extractUsername(token);
-    Owner owner = ownerRepository.findByUsername(username).orElse(null);
+public ResponseEntity<?> updateProfile(
+        @RequestAttribute(name = JwtPrincipal.REQUEST_ATTRIBUTE, required = false) JwtPrincipal principal,
+        @RequestBody Map<String, String> updates) {
+    if (principal == null) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid token");
+    }
+    Owner owner = ownerRepository.findByUsername(principal.getUsername()).orElse(null);
 
     if (owner == null) {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Owner not found");
     }
 
-    updates.forEach((key, value) -> {
-        switch (key) {
-            case "username": owner.setUsername(value); break;
-            case "password": owner.setPassword(passwordEncoder.encode(value)); break;
-        }
-    });
+    String newUsername = updates.get("username");
+    String newPassword = updates.get("password");
+    // The web profile form always sends both fields, so only real changes count
+    boolean usernameChanged = newUsername != null && !newUsername.isBlank()
+            && !newUsername.equals(owner.getUsername());
+    boolean passwordChanged = newPassword != null && !newPassword.isBlank()
+            && !passwordEncoder.matches(newPassword, owner.getPassword());
+
+    if (usernameChanged && ownerRepository.findByUsername(newUsername).isPresent()) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body("Username already taken");
+    }
+    if (usernameChanged) {
+        owner.setUsername(newUsername);
+    }
+    if (passwordChanged) {
+        owner.setPassword(passwordEncoder.encode(newPassword));
+    }
+
+    Map<String, Object> response = new HashMap<>();
+    response.put("message", "Profile updated");
+    if (!usernameChanged && !passwordChanged) {
+        return ResponseEntity.ok(response);
+    }
 
     ownerRepository.save(owner);
-    return ResponseEntity.ok("Profile updated");
+    principalDirectory.invalidate(principal.getUsername());
+    principalDirectory.invalidate(owner.getUsername());
+    // Tokens are not checked against the DB, so credential changes must revoke them explicitly
+    tokenDenylist.revokeAllFor(principal.getUsername());
+    refreshTokenService.revokeAllFor(JwtUtils.OWNER, principal.getUsername());
+    // Hand back a fresh pair so the session that made the change stays signed in
+    response.put("token", jwtUtils.generateToken(owner.getUsername()));
+    response.put("refreshToken", refreshTokenService.issue(JwtUtils.OWNER, owner.getUsername()));
+    return ResponseEntity.ok(response);
 }
 
     
@@ -0,0 +1,22 @@
+package com.it342_rentease.it342_rentease_project.controller;
+
+import com.it342_rentease.it342_rentease_project.service.IdempotentRequestInProgressException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+// The original request for this key is still running; the client should retry with the same key.
+@RestControllerAdvice
+public class IdempotencyExceptionHandler {
+
+    @ExceptionHandler(IdempotentRequestInProgressException.class)
+    public ResponseEntity<Map<String, Object>> handleInProgress(IdempotentRequestInProgressException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", e.getMessage()));
+    }
+}
@@ -0,0 +1,22 @@
+package com.it342_rentease.it342_rentease_project.controller;
+
+import com.it342_rentease.it342_rentease_project.security.PasswordHashingOverloadedException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+// A shed password hash (login, registration, password change) is retryable; tell the client to back off briefly.
+@RestControllerAdvice
+public class PasswordHashingExceptionHandler {
+
+    @ExceptionHandler(PasswordHashingOverloadedException.class)
+    public ResponseEntity<Map<String, Object>> handleOverloaded(PasswordHashingOverloadedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", e.getMessage()));
+    }
+}
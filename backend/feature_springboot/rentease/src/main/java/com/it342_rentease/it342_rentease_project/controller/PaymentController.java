@@ -4,10 +4,12 @@ import com.it342_rentease.it342_rentease_project.model.Payment;
 import com.it342_rentease.it342_rentease_project.model.Room;
 import com.it342_rentease.it342_rentease_project.repository.RoomRepository;
 import com.it342_rentease.it342_rentease_project.security.JwtUtils;
+import com.it342_rentease.it342_rentease_project.service.PaymentGatewayUnavailableException;
 import com.it342_rentease.it342_rentease_project.service.PaymentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Map;
@@ -30,35 +32,36 @@ public class PaymentController {
    
 
 
+    // The gateway endpoints return Mono so Spring MVC completes them asynchronously
+    // and the servlet thread is released while PayMongo responds.
+
     @PostMapping("/intent")
-    public ResponseEntity<Map<String, Object>> createPaymentIntent(@RequestBody Map<String, String> request) {
+    public Mono<ResponseEntity<Map<String, Object>>> createPaymentIntent(@RequestBody Map<String, String> request) {
         String amount = request.get("amount");
 
         if (amount == null || !amount.matches("\\d+")) {
-            return ResponseEntity.badRequest().body(Map.of("error", "Invalid or missing amount"));
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("error", "Invalid or missing amount")));
         }
 
-        Map<String, Object> response = paymentService.createPaymentIntent(amount);
-        return ResponseEntity.ok(response);
+        return paymentService.createPaymentIntentAsync(amount).map(ResponseEntity::ok);
     }
 
     @PostMapping("/method")
-    public ResponseEntity<Map<String, Object>> createPaymentMethod(@RequestBody Map<String, String> request) {
+    public Mono<ResponseEntity<Map<String, Object>>> createPaymentMethod(@RequestBody Map<String, String> request) {
         String name = request.get("name");
         String email = request.get("email");
         String phone = request.get("phone");
         String type = request.get("type");
 
         if (name == null || email == null || phone == null || type == null) {
-            return ResponseEntity.badRequest().body(Map.of("error", "Missing required fields"));
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("error", "Missing required fields")));
         }
 
-        Map<String, Object> response = paymentService.createPaymentMethod(name, email, phone, type);
-        return ResponseEntity.ok(response);
+        return paymentService.createPaymentMethodAsync(name, email, phone, type).map(ResponseEntity::ok);
     }
 
     @PostMapping("/intent/attach/{id}")
-    public ResponseEntity<Map<String, Object>> attachPaymentIntent(
+    public Mono<ResponseEntity<Map<String, Object>>> attachPaymentIntent(
             @PathVariable("id") String intentId,
             @RequestBody Map<String, String> request) {
         String paymentMethod = request.get("payment_method");
@@ -66,31 +69,36 @@ public class PaymentController {
         String returnUrl = request.get("return_url");
 
         if (paymentMethod == null || clientKey == null || returnUrl == null) {
-            return ResponseEntity.badRequest().body(Map.of("error", "Missing required fields"));
+            return Mono.just(ResponseEntity.badRequest().body(Map.of("error", "Missing required fields")));
         }
 
-        Map<String, Object> response = paymentService.attachPaymentIntent(intentId, paymentMethod, clientKey, returnUrl);
-        return ResponseEntity.ok(response);
+        return paymentService.attachPaymentIntentAsync(intentId, paymentMethod, clientKey, returnUrl)
+                .map(ResponseEntity::ok);
     }
 
     @GetMapping("/intent/{id}")
-    public ResponseEntity<Map<String, Object>> retrievePaymentIntent(
+    public Mono<ResponseEntity<Map<String, Object>>> retrievePaymentIntent(
             @PathVariable("id") String intentId,
             @RequestHeader("Authorization") String authHeader) {
         logger.info("Received request to retrieve payment intent: " + intentId);
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             logger.warning("Missing or invalid token for retrievePaymentIntent: " + authHeader);
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Missing or invalid token"));
+            return Mono.just(ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Missing or invalid token")));
         }
 
-        try {
-            Map<String, Object> response = paymentService.retrievePaymentIntent(intentId);
-            return ResponseEntity.ok(response);
-        } catch (Exception e) {
-            logger.severe("Error retrieving payment intent: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("error", "Failed to retrieve payment intent: " + e.getMessage()));
+        // Settled intents are answered from the local row (kept current by the webhook)
+        Optional<Map<String, Object>> settled = paymentService.getSettledPaymentIntent(intentId);
+        if (settled.isPresent()) {
+            return Mono.just(ResponseEntity.ok(settled.get()));
         }
+
+        return paymentService.retrievePaymentIntentAsync(intentId)
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> !(e instanceof PaymentGatewayUnavailableException), e -> {
+                    logger.severe("Error retrieving payment intent: " + e.getMessage());
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                            .body(Map.of("error", "Failed to retrieve payment intent: " + e.getMessage())));
+                });
     }
 
     @PostMapping("/save")
@@ -0,0 +1,26 @@
+package com.it342_rentease.it342_rentease_project.controller;
+
+import com.it342_rentease.it342_rentease_project.service.PaymentGatewayUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+// Turns a fast-failed PayMongo call (breaker open, bulkhead full) into a 503 the client can retry.
+@RestControllerAdvice
+public class PaymentGatewayExceptionHandler {
+
+    @Value("${paymongo.resilience.open-state-ms:30000}")
+    private long openStateMs;
+
+    @ExceptionHandler(PaymentGatewayUnavailableException.class)
+    public ResponseEntity<Map<String, Object>> handleGatewayUnavailable(PaymentGatewayUnavailableException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, openStateMs / 1000)))
+                .body(Map.of("error", e.getMessage()));
+    }
+}
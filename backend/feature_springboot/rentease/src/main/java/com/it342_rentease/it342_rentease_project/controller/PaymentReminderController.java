@@ -1,10 +1,8 @@
 package com.it342_rentease.it342_rentease_project.controller;
 
 import com.it342_rentease.it342_rentease_project.model.PaymentReminder;
-import com.it342_rentease.it342_rentease_project.model.RentedUnit;
 import com.it342_rentease.it342_rentease_project.model.Room;
 import com.it342_rentease.it342_rentease_project.repository.PaymentReminderRepository;
-import com.it342_rentease.it342_rentease_project.repository.RentedUnitRepository;
 import com.it342_rentease.it342_rentease_project.repository.RoomRepository;
 import com.it342_rentease.it342_rentease_project.service.PaymentReminderService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,9 +20,6 @@ public class PaymentReminderController {
     @Autowired
     private PaymentReminderService paymentReminderService;
 
-    @Autowired
-    private RentedUnitRepository rentedUnitRepository;
-
     @Autowired
     private RoomRepository roomRepository;
 
@@ -94,47 +89,19 @@ public ResponseEntity<List<PaymentReminder>> getByOwnerId(@PathVariable Long own
 
     @PatchMapping("/{reminderId}/approve")
     public ResponseEntity<?> approveReminder(@PathVariable Long reminderId) {
-        Optional<PaymentReminder> reminderOpt = paymentReminderRepository.findById(reminderId);
-    
-        if (reminderOpt.isEmpty()) {
+        if (paymentReminderService.approve(reminderId).isEmpty()) {
             return ResponseEntity.notFound().build();
         }
     
-        PaymentReminder reminder = reminderOpt.get();
-        Room room = reminder.getRoom();
-
-       
-
-        reminder.setApprovalStatus("approved");
-        room.setStatus("rented");
-        roomRepository.save(room);
-        paymentReminderRepository.save(reminder);
-    
-        // Create RentedUnit entry to link renter to room
-        RentedUnit rentedUnit = new RentedUnit();
-        rentedUnit.setRoom(room);
-        rentedUnit.setRenter(reminder.getRenter());
-        rentedUnitRepository.save(rentedUnit);
-    
         return ResponseEntity.ok("Booking approved successfully.");
     }
 
 @PatchMapping("/{reminderId}/deny")
 public ResponseEntity<?> denyReminder(@PathVariable Long reminderId) {
-    Optional<PaymentReminder> reminderOpt = paymentReminderRepository.findById(reminderId);
-
-    if (reminderOpt.isEmpty()) {
+    if (paymentReminderService.deny(reminderId).isEmpty()) {
         return ResponseEntity.notFound().build();
     }
 
-    PaymentReminder reminder = reminderOpt.get();
-    Room room = reminder.getRoom();
-
-    reminder.setApprovalStatus("denied");
-    room.setStatus("available"); // ❌ renter denied, available again
-    roomRepository.save(room);
-    paymentReminderRepository.save(reminder);
-
     return ResponseEntity.ok("Booking denied and room is available again.");
 }
 
@@ -0,0 +1,37 @@
+package com.it342_rentease.it342_rentease_project.controller;
+
+import com.it342_rentease.it342_rentease_project.service.PaymentWebhookService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Map;
+
+// Receives PayMongo webhooks. Only verifies and records the event so PayMongo gets a
+// fast 2xx; the Payment and PaymentReminder updates happen in PaymentWebhookWorker.
+@RestController
+@RequestMapping("/payments/webhook")
+public class PaymentWebhookController {
+
+    @Autowired
+    private PaymentWebhookService paymentWebhookService;
+
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> receive(
+            @RequestHeader(value = "Paymongo-Signature", required = false) String signature,
+            @RequestBody String payload) {
+        if (!paymentWebhookService.verifySignature(signature, payload)) {
+            System.err.println("Rejected PayMongo webhook with invalid signature");
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Invalid signature"));
+        }
+
+        try {
+            boolean recorded = paymentWebhookService.record(payload);
+            return ResponseEntity.ok(Map.of("received", true, "recorded", recorded));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Malformed webhook payload"));
+        }
+    }
+}
@@ -3,8 +3,11 @@ package com.it342_rentease.it342_rentease_project.controller;
 import com.it342_rentease.it342_rentease_project.model.RentedUnit;
 import com.it342_rentease.it342_rentease_project.model.Room;
 import com.it342_rentease.it342_rentease_project.repository.RoomRepository;
+import com.it342_rentease.it342_rentease_project.security.JwtPrincipal;
+import com.it342_rentease.it342_rentease_project.service.IdempotencyService;
 import com.it342_rentease.it342_rentease_project.service.PaymentService;
 import com.it342_rentease.it342_rentease_project.service.RentedUnitService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
@@ -22,9 +25,14 @@ import java.util.Optional;
 @CrossOrigin(origins = "http://localhost:5173")
 public class RentedUnitController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     @Autowired
     private RentedUnitService rentedUnitService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     @Autowired
     private PaymentService paymentService;
 
@@ -34,8 +42,23 @@ public class RentedUnitController {
     @Autowired
     private PaymentReminderRepository paymentReminderRepository;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @PostMapping
-    public ResponseEntity<Map<String, Object>> create(@RequestBody RentedUnit unit) {
+    public ResponseEntity<Map<String, Object>> create(
+            @RequestBody RentedUnit unit,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestAttribute(name = JwtPrincipal.REQUEST_ATTRIBUTE, required = false) JwtPrincipal principal) {
+        // A retried booking replays the first response instead of saving a second unit and intent.
+        // Keys are scoped to the caller's token, so anonymous requests are not deduplicated.
+        String key = idempotencyKey == null || principal == null ? null : "create:" + principal.getUsername() + ":"
+                + (unit.getRoom() != null ? unit.getRoom().getRoomId() : null) + ":" + idempotencyKey;
+        Map<String, Object> response = idempotencyService.execute(key, () -> createRentedUnit(unit));
+        return new ResponseEntity<>(response, HttpStatus.CREATED);
+    }
+
+    private Map<String, Object> createRentedUnit(RentedUnit unit) {
         RentedUnit savedUnit = rentedUnitService.save(unit);
 
         String amount = String.valueOf((int) (savedUnit.getRoom().getRentalFee()));
@@ -49,13 +72,13 @@ public class RentedUnitController {
         String checkoutUrl = (String) attributes.get("checkout_url");
 
         Map<String, Object> response = new HashMap<>();
-        response.put("rentedUnit", savedUnit);
+        // Serialized now: the response is cached for replays and must not hold a managed entity
+        response.put("rentedUnit", objectMapper.valueToTree(savedUnit));
         response.put("clientKey", clientKey);
         response.put("paymentIntentId", paymentIntentId);
         response.put("checkoutUrl", checkoutUrl);
         response.put("roomId", savedUnit.getRoom().getRoomId()); // Add roomId to response
-
-        return new ResponseEntity<>(response, HttpStatus.CREATED);
+        return response;
     }
 
     @GetMapping
@@ -88,7 +111,10 @@ public class RentedUnitController {
     }
 
     @PostMapping("/initiate-payment")
-    public ResponseEntity<Map<String, Object>> initiatePayment(@RequestBody Map<String, Long> request) {
+    public ResponseEntity<Map<String, Object>> initiatePayment(
+            @RequestBody Map<String, Long> request,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestAttribute(name = JwtPrincipal.REQUEST_ATTRIBUTE, required = false) JwtPrincipal principal) {
         Long roomId = request.get("roomId");
         if (roomId == null) {
             return ResponseEntity.badRequest().body(Map.of("error", "Missing roomId"));
@@ -100,17 +126,22 @@ public class RentedUnitController {
         }
 
         Room room = roomOptional.get();
-        String amount = String.valueOf((int) (room.getRentalFee()));
-        Map<String, Object> paymentIntent = paymentService.createPaymentIntent(amount);
-
-        Map<String, Object> data = (Map<String, Object>) paymentIntent.get("data");
-        Map<String, Object> attributes = (Map<String, Object>) data.get("attributes");
-
-        return ResponseEntity.ok(Map.of(
-                "paymentIntentId", (String) data.get("id"),
-                "clientKey", (String) attributes.get("client_key"),
-                "roomId", roomId // Include roomId in the response
-        ));
+        String key = idempotencyKey == null || principal == null ? null
+                : "initiate:" + principal.getUsername() + ":" + roomId + ":" + idempotencyKey;
+        Map<String, Object> response = idempotencyService.execute(key, () -> {
+            String amount = String.valueOf((int) (room.getRentalFee()));
+            Map<String, Object> paymentIntent = paymentService.createPaymentIntent(amount);
+
+            Map<String, Object> data = (Map<String, Object>) paymentIntent.get("data");
+            Map<String, Object> attributes = (Map<String, Object>) data.get("attributes");
+
+            return Map.of(
+                    "paymentIntentId", (String) data.get("id"),
+                    "clientKey", (String) attributes.get("client_key"),
+                    "roomId", roomId // Include roomId in the response
+            );
+        });
+        return ResponseEntity.ok(response);
 
     }
 
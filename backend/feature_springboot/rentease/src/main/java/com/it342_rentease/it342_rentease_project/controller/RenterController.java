@@ -1,8 +1,14 @@
 package com.it342_rentease.it342_rentease_project.controller;
 
 import com.it342_rentease.it342_rentease_project.model.Renter;
+import com.it342_rentease.it342_rentease_project.repository.PrincipalRecord;
 import com.it342_rentease.it342_rentease_project.repository.RenterRepository;
+import com.it342_rentease.it342_rentease_project.security.JwtPrincipal;
 import com.it342_rentease.it342_rentease_project.security.JwtUtils;
+import com.it342_rentease.it342_rentease_project.security.PasswordHashingOverloadedException;
+import com.it342_rentease.it342_rentease_project.security.TokenDenylist;
+import com.it342_rentease.it342_rentease_project.service.PrincipalDirectory;
+import com.it342_rentease.it342_rentease_project.service.RefreshTokenService;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -11,7 +17,7 @@ import java.util.Optional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -26,7 +32,16 @@ public class RenterController {
     private RenterRepository renterRepository;
 
     @Autowired
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private TokenDenylist tokenDenylist;
+
+    @Autowired
+    private PrincipalDirectory principalDirectory;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
 
     @PostMapping("/register")
     public Renter registerRenter(@RequestBody Renter renter) {
@@ -37,7 +52,10 @@ public class RenterController {
         // Encrypt password
         renter.setPassword(passwordEncoder.encode(renter.getPassword()));
 
-        return renterRepository.save(renter);
+        Renter saved = renterRepository.save(renter);
+        // Drop a cached miss for this email
+        principalDirectory.invalidate(saved.getEmail());
+        return saved;
     }
 
     @PostMapping("/login")
@@ -55,15 +73,21 @@ public class RenterController {
             if (!passwordEncoder.matches(password, renter.getPassword())) {
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid email or password");
             }
+            rehashIfNeeded(renter, password);
 
             // Generate JWT with renterId and renterName
             String token = jwtUtil.generateTokenForRenter(renter.getEmail(), renter.getRenterId(), renter.getName());
 
+            // "token" matches the owner login and /auth/refresh; "jwt" stays for existing clients
             Map<String, String> response = new HashMap<>();
+            response.put("token", token);
             response.put("jwt", token);
+            response.put("refreshToken", refreshTokenService.issue(JwtUtils.RENTER, renter.getEmail()));
 
             return ResponseEntity.ok(response);
 
+        } catch (PasswordHashingOverloadedException e) {
+            throw e; // 503 via PasswordHashingExceptionHandler
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -71,29 +95,57 @@ public class RenterController {
         }
     }
 
+    // Re-encodes with the configured BCrypt cost after a successful login. Skipped when
+    // hashing is overloaded; the next login tries again.
+    private void rehashIfNeeded(Renter renter, String password) {
+        if (!passwordEncoder.upgradeEncoding(renter.getPassword())) {
+            return;
+        }
+        try {
+            String newHash = passwordEncoder.encode(password);
+            if (renterRepository.updatePassword(renter.getRenterId(), renter.getPassword(), newHash) > 0) {
+                principalDirectory.invalidate(renter.getEmail());
+            }
+        } catch (PasswordHashingOverloadedException e) {
+            System.err.println("Skipping password rehash for renter " + renter.getRenterId() + ": " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(
+            @RequestAttribute(name = JwtPrincipal.REQUEST_ATTRIBUTE, required = false) JwtPrincipal principal,
+            @RequestBody(required = false) Map<String, String> body) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid token");
+        }
+        tokenDenylist.revoke(principal);
+        if (body != null) {
+            refreshTokenService.revoke(body.get("refreshToken"));
+        }
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping
     public ResponseEntity<?> getAllRenters() {
         return ResponseEntity.ok(renterRepository.findAll());
     }
 
     @GetMapping("/current")
-    public ResponseEntity<?> getCurrentRenter(@RequestHeader("Authorization") String authHeader) {
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+    public ResponseEntity<?> getCurrentRenter(
+            @RequestAttribute(name = JwtPrincipal.REQUEST_ATTRIBUTE, required = false) JwtPrincipal principal) {
+        if (principal == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid token");
         }
 
-        String token = authHeader.substring(7);
-        String email = jwtUtil.extractUsername(token);
-        Long renterId = jwtUtil.extractRenterId(token);
-        String renterName = jwtUtil.extractRenterName(token);
+        String email = principal.getUsername();
 
-        // Optional: Still query the database to ensure data is fresh
-        Optional<Renter> renterOptional = renterRepository.findByEmail(email);
+        // Served from the principal cache; updateRenterName invalidates it
+        Optional<PrincipalRecord> renterOptional = principalDirectory.findRenter(email);
         if (renterOptional.isPresent()) {
-            Renter renter = renterOptional.get();
+            PrincipalRecord renter = renterOptional.get();
             Map<String, Object> response = new HashMap<>();
-            response.put("email", renter.getEmail());
-            response.put("renterId", renter.getRenterId());
+            response.put("email", renter.getUsername());
+            response.put("renterId", renter.getId());
             response.put("name", renter.getName());
             return ResponseEntity.ok(response);
         } else {
@@ -102,14 +154,14 @@ public class RenterController {
     }
 
     @PatchMapping("/update-name")
-    public ResponseEntity<?> updateRenterName(@RequestHeader("Authorization") String authHeader,
+    public ResponseEntity<?> updateRenterName(
+            @RequestAttribute(name = JwtPrincipal.REQUEST_ATTRIBUTE, required = false) JwtPrincipal principal,
             @RequestBody Map<String, String> updateData) {
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+        if (principal == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Missing or invalid token");
         }
 
-        String token = authHeader.substring(7);
-        String email = jwtUtil.extractUsername(token);
+        String email = principal.getUsername();
 
         Optional<Renter> renterOptional = renterRepository.findByEmail(email);
         if (renterOptional.isPresent()) {
@@ -118,10 +170,13 @@ public class RenterController {
             if (newName != null && !newName.isEmpty()) {
                 renter.setName(newName);
                 renterRepository.save(renter);
+                principalDirectory.invalidate(email);
 
                 Map<String, Object> response = new HashMap<>();
                 response.put("message", "Name updated successfully");
                 response.put("newName", renter.getName());
+                // The token carries renterName; hand back one with the new name
+                response.put("token", jwtUtil.generateTokenForRenter(renter.getEmail(), renter.getRenterId(), renter.getName()));
 
                 return ResponseEntity.ok(response);
             } else {
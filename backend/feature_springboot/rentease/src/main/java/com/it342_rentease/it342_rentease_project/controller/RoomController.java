@@ -1,13 +1,20 @@
 package com.it342_rentease.it342_rentease_project.controller;
 
-import com.it342_rentease.it342_rentease_project.model.Payment;
 import com.it342_rentease.it342_rentease_project.model.Room;
+import com.it342_rentease.it342_rentease_project.model.OwnerStats;
 import com.it342_rentease.it342_rentease_project.repository.PaymentRepository;
 import com.it342_rentease.it342_rentease_project.repository.RoomRepository;
+import com.it342_rentease.it342_rentease_project.service.OwnerStatsService;
 import com.it342_rentease.it342_rentease_project.service.RoomService;
 import com.nimbusds.jose.util.Resource;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mapping.PropertyReferenceException;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -31,6 +38,9 @@ public class RoomController {
     @Autowired
     private RoomRepository roomRepository;
 
+    @Autowired
+    private OwnerStatsService ownerStatsService;
+
     @Autowired
     private PaymentRepository paymentRepository;
 
@@ -78,6 +88,39 @@ public class RoomController {
         }
     }
 
+    // Paginated room listing, e.g. /rooms/search?city=Cebu&minFee=3000&page=0&size=20&sort=rentalFee,asc
+    @GetMapping("/search")
+    public ResponseEntity<Map<String, Object>> searchRooms(
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Double minFee,
+            @RequestParam(required = false) Double maxFee,
+            @RequestParam(required = false) Integer numberOfRooms,
+            @PageableDefault(size = 20, sort = "roomId", direction = Sort.Direction.DESC) Pageable pageable) {
+        try {
+            if (minFee != null && maxFee != null && minFee > maxFee) {
+                return ResponseEntity.badRequest().body(Map.of("error", "minFee must not be greater than maxFee"));
+            }
+            Page<Room> page = roomService.searchRooms(city, status, minFee, maxFee, numberOfRooms, pageable);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("content", page.getContent());
+            response.put("page", page.getNumber());
+            response.put("size", page.getSize());
+            response.put("totalElements", page.getTotalElements());
+            response.put("totalPages", page.getTotalPages());
+            response.put("last", page.isLast());
+            return ResponseEntity.ok(response);
+        } catch (PropertyReferenceException | InvalidDataAccessApiUsageException e) {
+            // Unknown sort property, e.g. sort=foo,asc
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid search parameters: " + e.getMessage()));
+        } catch (Exception e) {
+            System.err.println("Error searching rooms: " + e.getMessage());
+            e.printStackTrace();
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     @GetMapping("/owner/{ownerId}/unavailable")
     public ResponseEntity<List<Room>> getUnavailableRoomsByOwner(@PathVariable Long ownerId) {
         try {
@@ -187,22 +230,14 @@ public class RoomController {
 @GetMapping("/owner/{ownerId}/room-stats")
 public ResponseEntity<Map<String, Object>> getRoomStatsByOwner(@PathVariable Long ownerId) {
     try {
-        // Count total, available, and rented rooms
-        long total = roomRepository.countByOwnerOwnerId(ownerId);
-        long available = roomRepository.countByOwnerOwnerIdAndStatus(ownerId, "available");
-        long rented = roomRepository.countByOwnerOwnerIdAndStatus(ownerId, "rented");
-
-        // Calculate revenue from paid payments for rooms owned by ownerId
-        List<Payment> paidPayments = paymentRepository.findByRoomOwnerOwnerIdAndStatus(ownerId, "Paid");
-        double revenue = paidPayments.stream()
-                .mapToDouble(Payment::getAmount)
-                .sum();
+        // Primary-key read of the owner_stats read model
+        OwnerStats ownerStats = ownerStatsService.getStats(ownerId);
 
         Map<String, Object> stats = new HashMap<>();
-        stats.put("total", total);
-        stats.put("available", available);
-        stats.put("rented", rented);
-        stats.put("revenue", revenue);
+        stats.put("total", ownerStats.getTotalRooms());
+        stats.put("available", ownerStats.getAvailableRooms());
+        stats.put("rented", ownerStats.getRentedRooms());
+        stats.put("revenue", ownerStats.getRevenue());
 
         return ResponseEntity.ok(stats);
     } catch (Exception e) {
@@ -217,16 +252,10 @@ public ResponseEntity<Map<String, Object>> getRoomStatsByOwner(@PathVariable Lon
             @RequestBody Map<String, String> requestBody) {
         try {
             String newStatus = requestBody.get("status");
-            Optional<Room> optionalRoom = roomRepository.findById(roomId);
-
-            if (optionalRoom.isEmpty()) {
+            if (roomService.updateRoomStatus(roomId, newStatus).isEmpty()) {
                 return new ResponseEntity<>("Room not found", HttpStatus.NOT_FOUND);
             }
 
-            Room room = optionalRoom.get();
-            room.setStatus(newStatus);
-            roomRepository.save(room);
-
             return new ResponseEntity<>(HttpStatus.OK);
         } catch (Exception e) {
             return new ResponseEntity<>("Failed to update room status: " + e.getMessage(),
@@ -0,0 +1,28 @@
+package com.it342_rentease.it342_rentease_project.controller;
+
+import com.it342_rentease.it342_rentease_project.dto.AuthResponse;
+import com.it342_rentease.it342_rentease_project.service.RefreshTokenService;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/auth")
+public class TokenController {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    // Trades a refresh token from login (owners or renters) for a new access token and a
+    // new refresh token; the presented one stops working
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody Map<String, String> body) {
+        return refreshTokenService.refresh(body.get("refreshToken"))
+                .<ResponseEntity<?>>map(pair -> ResponseEntity.ok(new AuthResponse(pair.accessToken(), pair.refreshToken())))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Invalid or expired refresh token"));
+    }
+}
@@ -2,6 +2,7 @@ package com.it342_rentease.it342_rentease_project.dto;
 
 public class AuthResponse {
     private String token;
+    private String refreshToken;
 
     public AuthResponse() {
     }
@@ -10,6 +11,11 @@ public class AuthResponse {
         this.token = token;
     }
 
+    public AuthResponse(String token, String refreshToken) {
+        this.token = token;
+        this.refreshToken = refreshToken;
+    }
+
     public String getToken() {
         return token;
     }
@@ -17,4 +23,12 @@ public class AuthResponse {
     public void setToken(String token) {
         this.token = token;
     }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
 }
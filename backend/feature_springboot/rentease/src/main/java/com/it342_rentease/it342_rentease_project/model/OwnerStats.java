@@ -0,0 +1,82 @@
+package com.it342_rentease.it342_rentease_project.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Read model behind the owner dashboard (GET /rooms/owner/{ownerId}/room-stats).
+// Kept current by OwnerStatsService from room and payment events and periodically
+// rebuilt from the room and payment tables to correct any drift.
+@Entity
+@Table(name = "owner_stats")
+public class OwnerStats {
+
+    @Id
+    @Column(name = "owner_id")
+    private Long ownerId;
+
+    @Column(name = "total_rooms", nullable = false)
+    private long totalRooms;
+
+    @Column(name = "available_rooms", nullable = false)
+    private long availableRooms;
+
+    @Column(name = "rented_rooms", nullable = false)
+    private long rentedRooms;
+
+    @Column(nullable = false)
+    private double revenue;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public OwnerStats() {
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(Long ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public long getTotalRooms() {
+        return totalRooms;
+    }
+
+    public void setTotalRooms(long totalRooms) {
+        this.totalRooms = totalRooms;
+    }
+
+    public long getAvailableRooms() {
+        return availableRooms;
+    }
+
+    public void setAvailableRooms(long availableRooms) {
+        this.availableRooms = availableRooms;
+    }
+
+    public long getRentedRooms() {
+        return rentedRooms;
+    }
+
+    public void setRentedRooms(long rentedRooms) {
+        this.rentedRooms = rentedRooms;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    public void setRevenue(double revenue) {
+        this.revenue = revenue;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -1,9 +1,13 @@
 package com.it342_rentease.it342_rentease_project.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_payment_intent_id", columnNames = "payment_intent_id"))
 public class Payment {
 
     @Id
@@ -20,6 +24,15 @@ public class Payment {
     @Column(name = "paid_date")
     private LocalDate paidDate; // Add this field for paid_date
 
+    // PaymentReconciliationJob lookups that left the row Pending; abandoned intents stop
+    // being polled after payment.reconciliation.max-checks
+    @ColumnDefault("0")
+    @Column(name = "reconcile_checks", nullable = false)
+    private int reconcileChecks;
+
+    @Column(name = "last_reconciled_at")
+    private LocalDateTime lastReconciledAt;
+
     @ManyToOne
     @JoinColumn(name = "room_id", nullable = false)
     private Room room;
@@ -85,6 +98,22 @@ public class Payment {
         this.paidDate = paidDate;
     }
 
+    public int getReconcileChecks() {
+        return reconcileChecks;
+    }
+
+    public void setReconcileChecks(int reconcileChecks) {
+        this.reconcileChecks = reconcileChecks;
+    }
+
+    public LocalDateTime getLastReconciledAt() {
+        return lastReconciledAt;
+    }
+
+    public void setLastReconciledAt(LocalDateTime lastReconciledAt) {
+        this.lastReconciledAt = lastReconciledAt;
+    }
+
     public Room getRoom() {
         return room;
     }
@@ -0,0 +1,151 @@
+package com.it342_rentease.it342_rentease_project.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+// A PayMongo webhook event as received. The PayMongo event id is the primary key, so a
+// replayed delivery is detected on insert. Rows are applied to Payment and PaymentReminder
+// by PaymentWebhookWorker and kept afterwards as the dedupe record. An event that keeps
+// failing is retried with backoff and dead-lettered after paymongo.webhook.max-attempts.
+@Entity
+@Table(name = "payment_webhook_events", indexes = @Index(name = "idx_payment_webhook_events_processed", columnList = "processed_at"))
+public class PaymentWebhookEvent {
+
+    @Id
+    @Column(name = "event_id", length = 64)
+    private String eventId;
+
+    @Column(name = "event_type", nullable = false, length = 64)
+    private String eventType;
+
+    @Column(name = "payment_intent_id")
+    private String paymentIntentId;
+
+    // Amount in centavos, as sent by PayMongo
+    private Integer amount;
+
+    private String paymentMethod;
+
+    @Column(name = "received_at", nullable = false)
+    private LocalDateTime receivedAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    // Defaulted in the column so ddl-auto can add it to a table that already has rows
+    @ColumnDefault("0")
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    // Null until the first failure; the event is due once this has passed
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "dead_lettered_at")
+    private LocalDateTime deadLetteredAt;
+
+    @Column(name = "last_error", length = 1024)
+    private String lastError;
+
+    public PaymentWebhookEvent() {
+    }
+
+    public PaymentWebhookEvent(String eventId, String eventType, String paymentIntentId, Integer amount, String paymentMethod) {
+        this.eventId = eventId;
+        this.eventType = eventType;
+        this.paymentIntentId = paymentIntentId;
+        this.amount = amount;
+        this.paymentMethod = paymentMethod;
+        this.receivedAt = LocalDateTime.now();
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getPaymentIntentId() {
+        return paymentIntentId;
+    }
+
+    public void setPaymentIntentId(String paymentIntentId) {
+        this.paymentIntentId = paymentIntentId;
+    }
+
+    public Integer getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Integer amount) {
+        this.amount = amount;
+    }
+
+    public String getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public void setPaymentMethod(String paymentMethod) {
+        this.paymentMethod = paymentMethod;
+    }
+
+    public LocalDateTime getReceivedAt() {
+        return receivedAt;
+    }
+
+    public void setReceivedAt(LocalDateTime receivedAt) {
+        this.receivedAt = receivedAt;
+    }
+
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+
+    public void setProcessedAt(LocalDateTime processedAt) {
+        this.processedAt = processedAt;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public LocalDateTime getDeadLetteredAt() {
+        return deadLetteredAt;
+    }
+
+    public void setDeadLetteredAt(LocalDateTime deadLetteredAt) {
+        this.deadLetteredAt = deadLetteredAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+}
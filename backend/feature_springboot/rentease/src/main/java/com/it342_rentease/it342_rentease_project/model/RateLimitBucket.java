@@ -0,0 +1,44 @@
+package com.it342_rentease.it342_rentease_project.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Shared token bucket used by DatabaseRateLimitBucketStore. Only written through
+// RateLimitBucketRepository.consume, which refills and takes a token in one statement.
+@Entity
+@Table(name = "rate_limit_buckets", indexes = @Index(name = "idx_rate_limit_buckets_updated", columnList = "updated_at"))
+public class RateLimitBucket {
+
+    @Id
+    @Column(name = "bucket_key", length = 255)
+    private String bucketKey;
+
+    @Column(nullable = false)
+    private double tokens;
+
+    // Whether the last consume took a token
+    @Column(nullable = false)
+    private boolean allowed;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public RateLimitBucket() {
+    }
+
+    public String getBucketKey() {
+        return bucketKey;
+    }
+
+    public double getTokens() {
+        return tokens;
+    }
+
+    public boolean isAllowed() {
+        return allowed;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
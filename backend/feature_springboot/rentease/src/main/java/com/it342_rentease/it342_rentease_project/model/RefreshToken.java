@@ -0,0 +1,87 @@
+package com.it342_rentease.it342_rentease_project.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Server-side record of a refresh token. Only the SHA-256 of the token is stored and looked
+// up through its unique index. Every refresh revokes the presented token and issues a new
+// one in the same family; presenting a revoked token again revokes the whole family.
+@Entity
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "idx_refresh_tokens_family", columnList = "family_id"),
+        @Index(name = "idx_refresh_tokens_subject", columnList = "principal_type, subject")
+})
+public class RefreshToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long refreshTokenId;
+
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+
+    @Column(name = "family_id", nullable = false, length = 36)
+    private String familyId;
+
+    // JwtUtils.OWNER or JwtUtils.RENTER
+    @Column(name = "principal_type", nullable = false, length = 16)
+    private String principalType;
+
+    // Owner username or renter email
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(name = "issued_at", nullable = false)
+    private LocalDateTime issuedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+
+    public RefreshToken() {
+    }
+
+    public RefreshToken(String tokenHash, String familyId, String principalType, String subject,
+                        LocalDateTime issuedAt, LocalDateTime expiresAt) {
+        this.tokenHash = tokenHash;
+        this.familyId = familyId;
+        this.principalType = principalType;
+        this.subject = subject;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getRefreshTokenId() {
+        return refreshTokenId;
+    }
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public String getFamilyId() {
+        return familyId;
+    }
+
+    public String getPrincipalType() {
+        return principalType;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public LocalDateTime getIssuedAt() {
+        return issuedAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public LocalDateTime getRevokedAt() {
+        return revokedAt;
+    }
+}
@@ -1,11 +1,14 @@
 package com.it342_rentease.it342_rentease_project.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import jakarta.validation.constraints.PositiveOrZero;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -51,10 +54,13 @@ public class Room {
     @Column(name = "status")
     private String status = "available"; // default value
 
+    // One row per uploaded image: the original URL plus its medium and thumbnail variants.
+    // Variants share the row with their original so read paths fetch a single collection.
     @ElementCollection
+    @BatchSize(size = 100)
     @CollectionTable(name = "room_images", joinColumns = @JoinColumn(name = "room_id"))
-    @Column(name = "image_path")
-    private List<String> imagePaths = new ArrayList<>();
+    @JsonIgnore
+    private List<RoomImage> images = new ArrayList<>();
 
     // Add transient fields for ownerId and ownerName
     @Transient
@@ -92,12 +98,25 @@ public class Room {
         this.status = status;
     }
 
+    public List<RoomImage> getImages() {
+        return images;
+    }
+
+    public void setImages(List<RoomImage> images) {
+        this.images = images;
+    }
+
+    // Original image URLs, in upload order
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
     public List<String> getImagePaths() {
-        return imagePaths;
+        return images.stream().map(RoomImage::getImagePath).toList();
     }
 
-    public void setImagePaths(List<String> imagePaths) {
-        this.imagePaths = imagePaths;
+    // Medium and thumbnail URLs per original image; images uploaded before variants
+    // existed, or that could not be decoded, have no entry and clients fall back to the original.
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public List<RoomImage> getImageVariants() {
+        return images.stream().filter(image -> image.getMediumPath() != null).toList();
     }
 
     public Long getRoomId() {
@@ -0,0 +1,52 @@
+package com.it342_rentease.it342_rentease_project.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+// One uploaded room image: the original (full size) URL and its downscaled variants.
+// mediumPath and thumbnailPath are null when no variants could be generated.
+@Embeddable
+public class RoomImage {
+
+    @Column(name = "image_path", length = 1024)
+    private String imagePath;
+
+    @Column(name = "medium_path", length = 1024)
+    private String mediumPath;
+
+    @Column(name = "thumbnail_path", length = 1024)
+    private String thumbnailPath;
+
+    public RoomImage() {
+    }
+
+    public RoomImage(String imagePath, String mediumPath, String thumbnailPath) {
+        this.imagePath = imagePath;
+        this.mediumPath = mediumPath;
+        this.thumbnailPath = thumbnailPath;
+    }
+
+    public String getImagePath() {
+        return imagePath;
+    }
+
+    public void setImagePath(String imagePath) {
+        this.imagePath = imagePath;
+    }
+
+    public String getMediumPath() {
+        return mediumPath;
+    }
+
+    public void setMediumPath(String mediumPath) {
+        this.mediumPath = mediumPath;
+    }
+
+    public String getThumbnailPath() {
+        return thumbnailPath;
+    }
+
+    public void setThumbnailPath(String thumbnailPath) {
+        this.thumbnailPath = thumbnailPath;
+    }
+}
@@ -0,0 +1,88 @@
+package com.it342_rentease.it342_rentease_project.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Outbox row for a storage object that still has to be deleted from the bucket.
+// Rows are written in the same transaction that stops referencing the object and
+// are removed by StorageDeletionWorker once the delete succeeded.
+@Entity
+@Table(name = "storage_deletions", indexes = @Index(name = "idx_storage_deletions_next_attempt", columnList = "next_attempt_at"))
+public class StorageDeletion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long deletionId;
+
+    @Column(name = "object_path", nullable = false, length = 1024)
+    private String objectPath;
+
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "last_error", length = 1024)
+    private String lastError;
+
+    public StorageDeletion() {
+    }
+
+    public StorageDeletion(String objectPath) {
+        LocalDateTime now = LocalDateTime.now();
+        this.objectPath = objectPath;
+        this.createdAt = now;
+        this.nextAttemptAt = now;
+    }
+
+    public Long getDeletionId() {
+        return deletionId;
+    }
+
+    public void setDeletionId(Long deletionId) {
+        this.deletionId = deletionId;
+    }
+
+    public String getObjectPath() {
+        return objectPath;
+    }
+
+    public void setObjectPath(String objectPath) {
+        this.objectPath = objectPath;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+}
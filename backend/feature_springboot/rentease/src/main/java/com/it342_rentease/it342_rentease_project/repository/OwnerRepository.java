@@ -2,9 +2,34 @@ package com.it342_rentease.it342_rentease_project.repository;
 
 import com.it342_rentease.it342_rentease_project.model.Owner;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface OwnerRepository extends JpaRepository<Owner, Long> {
     Optional<Owner> findByUsername(String username);
+
+    // Rehash on login; a no-op if the password was changed since it was read
+    @Modifying
+    @Transactional
+    @Query("update Owner o set o.password = :newHash where o.username = :username and o.password = :oldHash")
+    int updatePassword(@Param("username") String username,
+                       @Param("oldHash") String oldHash,
+                       @Param("newHash") String newHash);
+
+    // Resolves an identity to owner (by username) and renter (by email) in one statement;
+    // both sides hit the unique index on their column
+    @Query(value = """
+            select 'owner' as type, o.owner_id as id, o.username as username, o.password as password,
+                   o.username as name
+            from owner o where o.username = :identity
+            union all
+            select 'renter', r.renter_id, r.email, r.password, r.name
+            from renters r where r.email = :identity
+            """, nativeQuery = true)
+    List<PrincipalRecord> findPrincipals(@Param("identity") String identity);
 }
@@ -0,0 +1,67 @@
+package com.it342_rentease.it342_rentease_project.repository;
+
+import com.it342_rentease.it342_rentease_project.model.OwnerStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OwnerStatsRepository extends JpaRepository<OwnerStats, Long> {
+
+    // Returns 0 when the owner has no stats row yet; the caller then rebuilds it
+    @Modifying
+    @Query("""
+            update OwnerStats s set
+                s.totalRooms = s.totalRooms + :total,
+                s.availableRooms = s.availableRooms + :available,
+                s.rentedRooms = s.rentedRooms + :rented,
+                s.updatedAt = current_timestamp
+            where s.ownerId = :ownerId
+            """)
+    int applyRoomDelta(@Param("ownerId") Long ownerId,
+                       @Param("total") long total,
+                       @Param("available") long available,
+                       @Param("rented") long rented);
+
+    // Re-sums paid revenue for one owner; idempotent, so repeated paid events cannot double count
+    @Modifying
+    @Query(value = """
+            update owner_stats set
+                revenue = (select coalesce(sum(p.amount), 0) from payment p
+                           join room r on r.room_id = p.room_id
+                           where r.owner_id = :ownerId and p.status = 'Paid'),
+                updated_at = now()
+            where owner_id = :ownerId
+            """, nativeQuery = true)
+    int refreshRevenue(@Param("ownerId") Long ownerId);
+
+    // Recomputes stats rows from room and payment. With ownerId null every owner is rebuilt.
+    // Only rows that differ are written, so the returned count is the number of drifted rows.
+    @Modifying
+    @Query(value = """
+            insert into owner_stats (owner_id, total_rooms, available_rooms, rented_rooms, revenue, updated_at)
+            select o.owner_id,
+                   count(r.room_id),
+                   coalesce(sum(case when r.status = 'available' then 1 else 0 end), 0),
+                   coalesce(sum(case when r.status = 'rented' then 1 else 0 end), 0),
+                   (select coalesce(sum(p.amount), 0) from payment p
+                    join room pr on pr.room_id = p.room_id
+                    where pr.owner_id = o.owner_id and p.status = 'Paid'),
+                   now()
+            from owner o
+            left join room r on r.owner_id = o.owner_id
+            where cast(:ownerId as bigint) is null or o.owner_id = :ownerId
+            group by o.owner_id
+            on conflict (owner_id) do update set
+                total_rooms = excluded.total_rooms,
+                available_rooms = excluded.available_rooms,
+                rented_rooms = excluded.rented_rooms,
+                revenue = excluded.revenue,
+                updated_at = excluded.updated_at
+            where (owner_stats.total_rooms, owner_stats.available_rooms, owner_stats.rented_rooms, owner_stats.revenue)
+                is distinct from (excluded.total_rooms, excluded.available_rooms, excluded.rented_rooms, excluded.revenue)
+            """, nativeQuery = true)
+    int rebuild(@Param("ownerId") Long ownerId);
+}
@@ -5,6 +5,7 @@ import com.it342_rentease.it342_rentease_project.model.Room;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface PaymentReminderRepository extends JpaRepository<PaymentReminder, Long> {
@@ -12,4 +13,5 @@ public interface PaymentReminderRepository extends JpaRepository<PaymentReminder
     List<PaymentReminder> findByOwnerOwnerId(Long ownerId);
     List<PaymentReminder> findByRoomRoomId(Long roomId);
      List<PaymentReminder> findByRoom(Room room); 
+    List<PaymentReminder> findByRoomRoomIdAndPaymentStatusInOrderByDueDateAscReminderIdAsc(Long roomId, Collection<String> paymentStatuses);
 }
@@ -1,9 +1,16 @@
 package com.it342_rentease.it342_rentease_project.repository;
 
 import com.it342_rentease.it342_rentease_project.model.Payment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,5 +19,50 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     List<Payment> findByRoomRoomId(Long roomId);
     Optional<Payment> findByPaymentIntentId(String paymentIntentId);
     List<Payment> findByRoomOwnerOwnerIdAndStatus(Long ownerId, String status);
+    long countByStatus(String status);
+
+    // Keyset page for PaymentReconciliationJob: next rows after afterPaymentId that have not
+    // used up their checks
+    @Query("select p from Payment p join fetch p.room where p.status = :status and p.paymentId > :afterPaymentId " +
+           "and p.reconcileChecks < :maxChecks order by p.paymentId")
+    List<Payment> findPageByStatus(@Param("status") String status, @Param("afterPaymentId") Long afterPaymentId,
+                                   @Param("maxChecks") int maxChecks, Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("update Payment p set p.reconcileChecks = p.reconcileChecks + 1, p.lastReconciledAt = :checkedAt " +
+           "where p.paymentId = :paymentId")
+    int recordReconcileCheck(@Param("paymentId") Long paymentId, @Param("checkedAt") LocalDateTime checkedAt);
+
+    // Inserts or refreshes the row for an intent in one statement, relying on uk_payment_intent_id.
+    // A row that is already Paid is never downgraded by a late or stale save.
+    @Transactional
+    @Query(value = """
+            insert into payment (payment_intent_id, amount, status, payment_method, paid_date, room_id)
+            values (:paymentIntentId, :amount, :status, :paymentMethod, :paidDate, :roomId)
+            on conflict (payment_intent_id) do update set
+                amount = case when payment.status = 'Paid' then payment.amount else excluded.amount end,
+                payment_method = case when payment.status = 'Paid' then payment.payment_method else excluded.payment_method end,
+                paid_date = case when payment.status = 'Paid' then payment.paid_date else excluded.paid_date end,
+                status = case when payment.status = 'Paid' then payment.status else excluded.status end
+            returning *
+            """, nativeQuery = true)
+    Payment upsert(@Param("paymentIntentId") String paymentIntentId,
+                   @Param("amount") float amount,
+                   @Param("status") String status,
+                   @Param("paymentMethod") String paymentMethod,
+                   @Param("paidDate") LocalDate paidDate,
+                   @Param("roomId") Long roomId);
+
+    // Fallback row written when PayMongo could not be reached. Leaves an existing row untouched
+    // (the no-op update is only there so RETURNING yields it).
+    @Transactional
+    @Query(value = """
+            insert into payment (payment_intent_id, amount, status, payment_method, paid_date, room_id)
+            values (:paymentIntentId, 0, 'Pending', 'gcash', null, :roomId)
+            on conflict (payment_intent_id) do update set payment_intent_id = excluded.payment_intent_id
+            returning *
+            """, nativeQuery = true)
+    Payment insertPendingIfAbsent(@Param("paymentIntentId") String paymentIntentId, @Param("roomId") Long roomId);
 
 }
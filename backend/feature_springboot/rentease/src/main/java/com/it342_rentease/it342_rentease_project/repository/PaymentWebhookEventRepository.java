@@ -0,0 +1,19 @@
+package com.it342_rentease.it342_rentease_project.repository;
+
+import com.it342_rentease.it342_rentease_project.model.PaymentWebhookEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface PaymentWebhookEventRepository extends JpaRepository<PaymentWebhookEvent, String> {
+    // Unprocessed, not dead-lettered, and not backing off
+    @Query("SELECT e FROM PaymentWebhookEvent e WHERE e.processedAt IS NULL AND e.deadLetteredAt IS NULL " +
+           "AND (e.nextAttemptAt IS NULL OR e.nextAttemptAt <= :now) ORDER BY e.receivedAt ASC")
+    List<PaymentWebhookEvent> findDue(@Param("now") LocalDateTime now, Pageable pageable);
+}
@@ -0,0 +1,10 @@
+package com.it342_rentease.it342_rentease_project.repository;
+
+// Projection for OwnerRepository.findPrincipals: one row per owner or renter matching an identity
+public interface PrincipalRecord {
+    String getType();
+    Long getId();
+    String getUsername();
+    String getPassword();
+    String getName();
+}
@@ -0,0 +1,36 @@
+package com.it342_rentease.it342_rentease_project.repository;
+
+import com.it342_rentease.it342_rentease_project.model.RateLimitBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface RateLimitBucketRepository extends JpaRepository<RateLimitBucket, String> {
+
+    // Refills the bucket for the time since its last update and takes a token if one is
+    // there, atomically under the row lock of the upsert. A new bucket starts full.
+    @Transactional
+    @Query(value = """
+            insert into rate_limit_buckets as b (bucket_key, tokens, allowed, updated_at)
+            values (:bucketKey, :capacity - 1, true, now())
+            on conflict (bucket_key) do update set
+                tokens = least(:capacity, b.tokens + extract(epoch from now() - b.updated_at) * :refillPerSecond)
+                         - case when least(:capacity, b.tokens + extract(epoch from now() - b.updated_at) * :refillPerSecond) >= 1
+                                then 1 else 0 end,
+                allowed = least(:capacity, b.tokens + extract(epoch from now() - b.updated_at) * :refillPerSecond) >= 1,
+                updated_at = now()
+            returning tokens, allowed
+            """, nativeQuery = true)
+    RateLimitBucketState consume(@Param("bucketKey") String bucketKey,
+                                 @Param("capacity") double capacity,
+                                 @Param("refillPerSecond") double refillPerSecond);
+
+    @Modifying
+    @Transactional
+    @Query("delete from RateLimitBucket b where b.updatedAt < :before")
+    int deleteIdleBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,7 @@
+package com.it342_rentease.it342_rentease_project.repository;
+
+// Projection returned by RateLimitBucketRepository.consume
+public interface RateLimitBucketState {
+    double getTokens();
+    boolean getAllowed();
+}
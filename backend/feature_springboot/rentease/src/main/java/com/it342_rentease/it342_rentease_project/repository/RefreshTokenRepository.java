@@ -0,0 +1,42 @@
+package com.it342_rentease.it342_rentease_project.repository;
+
+import com.it342_rentease.it342_rentease_project.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    // Returns 0 when the token was already revoked, e.g. by a concurrent refresh
+    @Modifying
+    @Transactional
+    @Query("update RefreshToken t set t.revokedAt = :now where t.refreshTokenId = :id and t.revokedAt is null")
+    int revoke(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("update RefreshToken t set t.revokedAt = :now where t.familyId = :familyId and t.revokedAt is null")
+    int revokeFamily(@Param("familyId") String familyId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("""
+            update RefreshToken t set t.revokedAt = :now
+            where t.principalType = :principalType and t.subject = :subject and t.revokedAt is null
+            """)
+    int revokeAllFor(@Param("principalType") String principalType,
+                     @Param("subject") String subject,
+                     @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("delete from RefreshToken t where t.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -2,13 +2,19 @@ package com.it342_rentease.it342_rentease_project.repository;
 
 import com.it342_rentease.it342_rentease_project.model.RentedUnit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface RentedUnitRepository extends JpaRepository<RentedUnit, Long> {
     List<RentedUnit> findByRenterRenterId(Long renterId);
     List<RentedUnit> findByRoomRoomId(Long roomId);
     boolean existsByRoom_RoomIdAndRenter_RenterId(Long roomId, Long renterId);
-    
+
+    // Resolves renters for a whole set of rooms in one round trip
+    @Query("select ru from RentedUnit ru join fetch ru.renter where ru.room.roomId in :roomIds order by ru.rentedUnitId")
+    List<RentedUnit> findWithRenterByRoomIds(@Param("roomIds") Collection<Long> roomIds);
     
 }
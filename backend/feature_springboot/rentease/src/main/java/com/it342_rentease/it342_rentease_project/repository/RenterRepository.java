@@ -5,9 +5,20 @@ import com.it342_rentease.it342_rentease_project.model.Renter;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface RenterRepository extends JpaRepository<Renter, Long> {
     boolean existsByEmail(String email);
     Optional<Renter> findByEmail(String email);
 
+    // Rehash on login; a no-op if the password was changed since it was read
+    @Modifying
+    @Transactional
+    @Query("update Renter r set r.password = :newHash where r.renterId = :renterId and r.password = :oldHash")
+    int updatePassword(@Param("renterId") Long renterId,
+                       @Param("oldHash") String oldHash,
+                       @Param("newHash") String newHash);
 }
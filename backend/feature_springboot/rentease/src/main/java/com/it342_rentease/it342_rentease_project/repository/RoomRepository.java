@@ -1,13 +1,35 @@
 package com.it342_rentease.it342_rentease_project.repository;
 
 import com.it342_rentease.it342_rentease_project.model.Room;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
+
+public interface RoomRepository extends JpaRepository<Room, Long>, JpaSpecificationExecutor<Room> {
+    // Read paths fetch owner and images in the same statement to avoid 1 + 2N queries
+    @Query("select distinct r from Room r left join fetch r.owner left join fetch r.images")
+    List<Room> findAllWithOwnerAndImages();
+
+    @Query("select r from Room r left join fetch r.owner left join fetch r.images where r.roomId = :roomId")
+    Optional<Room> findByIdWithOwnerAndImages(@Param("roomId") Long roomId);
+
+    // Paged search: owner is joined, images are batch-loaded (see Room.images)
+    @Override
+    @EntityGraph(attributePaths = "owner")
+    Page<Room> findAll(Specification<Room> spec, Pageable pageable);
 
-public interface RoomRepository extends JpaRepository<Room, Long> {
     // Fetch rooms by ownerId
+    @EntityGraph(attributePaths = {"owner", "images"})
     List<Room> findByOwnerOwnerId(Long ownerId);
+    @EntityGraph(attributePaths = {"owner", "images"})
     List<Room> findByOwnerOwnerIdAndStatus(Long ownerId, String status);
     long countByOwnerOwnerId(Long ownerId);
 long countByOwnerOwnerIdAndStatus(Long ownerId, String status);
@@ -0,0 +1,44 @@
+package com.it342_rentease.it342_rentease_project.repository;
+
+import com.it342_rentease.it342_rentease_project.model.Room;
+import org.springframework.data.jpa.domain.Specification;
+
+// Filters used by the paginated room search. A null argument means "no filter".
+public final class RoomSpecifications {
+
+    private RoomSpecifications() {
+    }
+
+    public static Specification<Room> cityEquals(String city) {
+        return (root, query, cb) -> city == null || city.isBlank()
+                ? null
+                : cb.equal(cb.lower(root.get("city")), city.trim().toLowerCase());
+    }
+
+    public static Specification<Room> statusEquals(String status) {
+        return (root, query, cb) -> status == null || status.isBlank()
+                ? null
+                : cb.equal(cb.lower(root.get("status")), status.trim().toLowerCase());
+    }
+
+    public static Specification<Room> rentalFeeBetween(Double minFee, Double maxFee) {
+        return (root, query, cb) -> {
+            if (minFee != null && maxFee != null) {
+                return cb.between(root.get("rentalFee"), minFee, maxFee);
+            }
+            if (minFee != null) {
+                return cb.greaterThanOrEqualTo(root.get("rentalFee"), minFee);
+            }
+            if (maxFee != null) {
+                return cb.lessThanOrEqualTo(root.get("rentalFee"), maxFee);
+            }
+            return null;
+        };
+    }
+
+    public static Specification<Room> numberOfRoomsAtLeast(Integer numberOfRooms) {
+        return (root, query, cb) -> numberOfRooms == null
+                ? null
+                : cb.greaterThanOrEqualTo(root.get("numberOfRooms"), numberOfRooms);
+    }
+}
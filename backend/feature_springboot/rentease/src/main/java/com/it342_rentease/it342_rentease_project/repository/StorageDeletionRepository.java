@@ -0,0 +1,12 @@
+package com.it342_rentease.it342_rentease_project.repository;
+
+import com.it342_rentease.it342_rentease_project.model.StorageDeletion;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface StorageDeletionRepository extends JpaRepository<StorageDeletion, Long> {
+    List<StorageDeletion> findByNextAttemptAtLessThanEqualOrderByDeletionIdAsc(LocalDateTime now, Pageable pageable);
+}
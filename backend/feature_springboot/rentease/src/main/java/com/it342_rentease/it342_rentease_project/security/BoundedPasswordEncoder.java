@@ -0,0 +1,123 @@
+package com.it342_rentease.it342_rentease_project.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// BCrypt on the bounded passwordHashingExecutor. Requests past the queue capacity, or
+// waiting longer than max-wait-ms, fail fast with PasswordHashingOverloadedException
+// instead of piling up on the CPU.
+//
+// upgradeEncoding reports hashes whose cost differs from password.hashing.bcrypt-strength,
+// so logins rehash them (DaoAuthenticationProvider for owners, RenterController for renters).
+@Component
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    @Autowired
+    @Qualifier("passwordHashingExecutor")
+    private ThreadPoolTaskExecutor passwordHashingExecutor;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${password.hashing.bcrypt-strength:10}")
+    private int strength;
+
+    @Value("${password.hashing.max-wait-ms:5000}")
+    private long maxWaitMs;
+
+    private BCryptPasswordEncoder bcrypt;
+    private Timer encodeTimer;
+    private Timer matchesTimer;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    void init() {
+        bcrypt = new BCryptPasswordEncoder(strength);
+        encodeTimer = hashTimer("encode");
+        matchesTimer = hashTimer("matches");
+        rejectedCounter = Counter.builder("password.hash.rejected")
+                .description("Password hashes shed because the hashing queue was full or too slow")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.queue.depth", passwordHashingExecutor, ThreadPoolTaskExecutor::getQueueSize)
+                .description("Password hashes waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("password.hash.active", passwordHashingExecutor, ThreadPoolTaskExecutor::getActiveCount)
+                .description("Password hashes currently running")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(encodeTimer, () -> bcrypt.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(matchesTimer, () -> bcrypt.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // $2a$10$... -> 10
+        if (encodedPassword == null || encodedPassword.length() < 7) {
+            return false;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6)) != strength;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private Timer hashTimer(String operation) {
+        return Timer.builder("password.hash")
+                .description("Password hash time, including the wait for a hashing thread")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private <T> T run(Timer timer, Callable<T> hash) {
+        long start = System.nanoTime();
+        Future<T> future;
+        try {
+            future = passwordHashingExecutor.submit(hash);
+        } catch (TaskRejectedException e) {
+            rejectedCounter.increment();
+            throw new PasswordHashingOverloadedException("Password hashing is busy, try again shortly", e);
+        }
+        try {
+            return future.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejectedCounter.increment();
+            throw new PasswordHashingOverloadedException("Password hashing is busy, try again shortly", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing password", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
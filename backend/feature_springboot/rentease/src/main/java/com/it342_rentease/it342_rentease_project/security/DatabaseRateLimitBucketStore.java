@@ -0,0 +1,40 @@
+package com.it342_rentease.it342_rentease_project.security;
+
+import com.it342_rentease.it342_rentease_project.repository.RateLimitBucketRepository;
+import com.it342_rentease.it342_rentease_project.repository.RateLimitBucketState;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+// Buckets in the rate_limit_buckets table, so every instance enforces the same limits.
+// Costs one upsert per limited request; the limits only cover auth and payment routes.
+@Component
+@ConditionalOnProperty(name = "rate-limit.store", havingValue = "database")
+public class DatabaseRateLimitBucketStore implements RateLimitBucketStore {
+
+    @Autowired
+    private RateLimitBucketRepository rateLimitBucketRepository;
+
+    @Value("${rate-limit.database.idle-ttl-ms:3600000}")
+    private long idleTtlMs;
+
+    @Override
+    public long tryConsume(String key, long capacity, double refillPerSecond) {
+        RateLimitBucketState state = rateLimitBucketRepository.consume(key, capacity, refillPerSecond);
+        if (state.getAllowed()) {
+            return 0;
+        }
+        return (long) Math.ceil((1 - state.getTokens()) / refillPerSecond * 1000);
+    }
+
+    // Rows idle longer than any bucket takes to refill are the same as a new bucket
+    @Scheduled(fixedDelayString = "${rate-limit.cleanup-interval-ms:60000}")
+    public void purgeIdle() {
+        rateLimitBucketRepository.deleteIdleBefore(LocalDateTime.now().minus(Duration.ofMillis(idleTtlMs)));
+    }
+}
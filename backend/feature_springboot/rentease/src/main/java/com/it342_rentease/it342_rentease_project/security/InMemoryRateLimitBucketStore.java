@@ -0,0 +1,55 @@
+package com.it342_rentease.it342_rentease_project.security;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Lock-free buckets: each bucket is an immutable state swapped with compare-and-set, so
+// concurrent requests for one key never block each other. Buckets that have refilled
+// completely are indistinguishable from new ones and are purged; a request racing the
+// purge can get one extra token.
+@Component
+@ConditionalOnProperty(name = "rate-limit.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRateLimitBucketStore implements RateLimitBucketStore {
+
+    private final Map<String, AtomicReference<Bucket>> buckets = new ConcurrentHashMap<>();
+
+    @Override
+    public long tryConsume(String key, long capacity, double refillPerSecond) {
+        AtomicReference<Bucket> ref = buckets.get(key);
+        if (ref == null) {
+            ref = buckets.computeIfAbsent(key, k -> new AtomicReference<>(Bucket.full(capacity)));
+        }
+        while (true) {
+            Bucket current = ref.get();
+            long now = System.nanoTime();
+            double tokens = Math.min(capacity, current.tokens + (now - current.updatedAtNanos) / 1e9 * refillPerSecond);
+            if (tokens < 1) {
+                return (long) Math.ceil((1 - tokens) / refillPerSecond * 1000);
+            }
+            double left = tokens - 1;
+            long fullAtNanos = now + (long) ((capacity - left) / refillPerSecond * 1e9);
+            if (ref.compareAndSet(current, new Bucket(left, now, fullAtNanos))) {
+                return 0;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${rate-limit.cleanup-interval-ms:60000}")
+    public void purgeFull() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(ref -> now - ref.get().fullAtNanos >= 0);
+    }
+
+    private record Bucket(double tokens, long updatedAtNanos, long fullAtNanos) {
+
+        static Bucket full(long capacity) {
+            long now = System.nanoTime();
+            return new Bucket(capacity, now, now);
+        }
+    }
+}
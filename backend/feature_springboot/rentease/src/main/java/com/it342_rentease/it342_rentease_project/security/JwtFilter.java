@@ -1,21 +1,19 @@
 package com.it342_rentease.it342_rentease_project.security;
 
-import com.it342_rentease.it342_rentease_project.service.OwnerDetailsService;
-import com.it342_rentease.it342_rentease_project.service.RenterDetailsService;
-
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.*;
 import jakarta.servlet.http.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.*;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 
+// Authenticates from the token alone: principal type and roles are claims, and
+// revocation is checked against the in-memory TokenDenylist, so no DB lookup happens here.
 @Component
 public class JwtFilter extends OncePerRequestFilter {
 
@@ -23,10 +21,7 @@ public class JwtFilter extends OncePerRequestFilter {
     private JwtUtils jwtUtils;
 
     @Autowired
-    private OwnerDetailsService ownerDetailsService;
-
-    @Autowired
-    private RenterDetailsService renterDetailsService;
+    private TokenDenylist tokenDenylist;
 
 
   @Override
@@ -34,36 +29,22 @@ protected void doFilterInternal(HttpServletRequest request, HttpServletResponse
                                 FilterChain filterChain) throws ServletException, IOException {
 
     final String header = request.getHeader("Authorization");
-    String token = null, username = null;
 
     if (header != null && header.startsWith("Bearer ")) {
-        token = header.substring(7);
-        username = jwtUtils.extractUsername(token);
-    }
-
-    if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-        UserDetails userDetails = null;
-
-        try {
-            // Try renter first
-            userDetails = renterDetailsService.loadUserByUsername(username);
-        } catch (UsernameNotFoundException e) {
-            try {
-                // Fallback to owner
-                userDetails = ownerDetailsService.loadUserByUsername(username);
-            } catch (UsernameNotFoundException ex) {
-                // Neither found, abort
-                filterChain.doFilter(request, response);
-                return;
+        // Signature is verified exactly once per request; controllers reuse the claims
+        Claims claims = jwtUtils.parseClaims(header.substring(7));
+        JwtPrincipal principal = claims != null ? new JwtPrincipal(claims) : null;
+        if (principal != null && !tokenDenylist.isRevoked(principal)) {
+            request.setAttribute(JwtPrincipal.REQUEST_ATTRIBUTE, principal);
+
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                // Tokens issued before the roles claim existed authenticate without authorities
+                UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
+                        principal, null, principal.getAuthorities());
+                auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(auth);
             }
         }
-
-        if (jwtUtils.validateToken(token)) {
-            UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                    userDetails, null, userDetails.getAuthorities());
-            auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-            SecurityContextHolder.getContext().setAuthentication(auth);
-        }
     }
 
     filterChain.doFilter(request, response);
@@ -73,7 +54,8 @@ protected void doFilterInternal(HttpServletRequest request, HttpServletResponse
 protected boolean shouldNotFilter(HttpServletRequest request) {
     String path = request.getServletPath();
     return path.equals("/owners/login") || path.equals("/owners/register")
-        || path.equals("/api/renters/login") || path.equals("/api/renters/register");
+        || path.equals("/api/renters/login") || path.equals("/api/renters/register")
+        || path.equals("/auth/refresh");
 }
 
 
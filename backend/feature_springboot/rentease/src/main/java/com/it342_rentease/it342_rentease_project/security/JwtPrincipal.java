@@ -0,0 +1,74 @@
+package com.it342_rentease.it342_rentease_project.security;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.security.Principal;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+// Verified token claims for the current request. JwtFilter parses the bearer token once,
+// uses this as the Authentication principal and stores it under REQUEST_ATTRIBUTE;
+// controllers read it with @RequestAttribute(JwtPrincipal.REQUEST_ATTRIBUTE) instead of
+// re-parsing the header.
+public class JwtPrincipal implements Principal {
+
+    public static final String REQUEST_ATTRIBUTE = "jwtPrincipal";
+
+    private final Claims claims;
+
+    public JwtPrincipal(Claims claims) {
+        this.claims = claims;
+    }
+
+    // Owner username or renter email
+    public String getUsername() {
+        return claims.getSubject();
+    }
+
+    @Override
+    public String getName() {
+        return getUsername();
+    }
+
+    public Long getRenterId() {
+        return claims.get("renterId", Long.class);
+    }
+
+    public String getRenterName() {
+        return claims.get("renterName", String.class);
+    }
+
+    // JwtUtils.OWNER or JwtUtils.RENTER; null for tokens issued before the claim existed
+    public String getPrincipalType() {
+        return claims.get("type", String.class);
+    }
+
+    public Collection<GrantedAuthority> getAuthorities() {
+        Object roles = claims.get("roles");
+        if (!(roles instanceof List<?> roleList)) {
+            return List.of();
+        }
+        return roleList.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(String.valueOf(role)))
+                .toList();
+    }
+
+    public String getTokenId() {
+        return claims.getId();
+    }
+
+    public Date getIssuedAt() {
+        return claims.getIssuedAt();
+    }
+
+    public Date getExpiration() {
+        return claims.getExpiration();
+    }
+
+    public Claims getClaims() {
+        return claims;
+    }
+}
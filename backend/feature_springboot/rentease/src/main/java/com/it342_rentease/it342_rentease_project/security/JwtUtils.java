@@ -1,86 +1,101 @@
 package com.it342_rentease.it342_rentease_project.security;
 
 import io.jsonwebtoken.*;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.SecretKey;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
+// Signs and verifies all tokens with HS256. The key is decoded from jwt.secret (base64,
+// as jjwt 0.9 read it) once, and the parser is immutable and shared by all threads.
+// Unlike 0.9, jjwt 0.12 refuses HS256 keys under 256 bits, so the secret must decode to
+// at least 32 bytes; startup fails with a message saying so otherwise.
 @Component
 public class JwtUtils {
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final long jwtExpiration;
 
-    @Value("${jwt.expiration}")
-    private long jwtExpiration;
+    private static final int MIN_SECRET_BYTES = 32;
 
+    public JwtUtils(@Value("${jwt.secret}") String jwtSecret,
+                    @Value("${jwt.expiration}") long jwtExpiration) {
+        byte[] keyBytes = Decoders.BASE64.decode(jwtSecret);
+        if (keyBytes.length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("jwt.secret decodes to " + keyBytes.length * 8
+                    + " bits; HS256 needs at least " + MIN_SECRET_BYTES * 8
+                    + " (a base64 string of 44+ characters, e.g. from `openssl rand -base64 32`)");
+        }
+        this.signingKey = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.jwtExpiration = jwtExpiration;
+    }
+
+    public static final String OWNER = "owner";
+    public static final String RENTER = "renter";
+
+    // Owner token. Carries everything JwtFilter needs to build the Authentication
+    // (principal type and roles), so requests are authenticated without a DB lookup.
     public String generateToken(String username) {
-        return Jwts.builder()
-                .setSubject(username)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(SignatureAlgorithm.HS512, jwtSecret)
-                .compact();
+        return sign(principalClaims(OWNER, "ROLE_OWNER"), username);
+    }
+
+    // Verifies the signature and expiry once and returns the claims, or null when the
+    // token is malformed, forged or expired
+    public Claims parseClaims(String token) {
+        try {
+            return parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
     }
 
     public String extractUsername(String token) {
-        return Jwts.parser()
-                .setSigningKey(jwtSecret)
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject();
+        Claims claims = parseClaims(token);
+        return claims != null ? claims.getSubject() : null;
     }
 
     public boolean validateToken(String token) {
-        try {
-            Jwts.parser().setSigningKey(jwtSecret).parseClaimsJws(token);
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+        return parseClaims(token) != null;
     }
 
     public String generateTokenForRenter(String email) {
-        return Jwts.builder()
-                .setSubject(email)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(SignatureAlgorithm.HS256, jwtSecret)
-                .compact();
+        return sign(principalClaims(RENTER, "ROLE_RENTER"), email);
     }
 
     // New method to include renterId and renterName in the JWT
     public String generateTokenForRenter(String email, Long renterId, String renterName) {
-        Map<String, Object> claims = new HashMap<>();
+        Map<String, Object> claims = principalClaims(RENTER, "ROLE_RENTER");
         claims.put("renterId", renterId);
-    
+        claims.put("renterName", renterName);
+        return sign(claims, email);
+    }
 
+    private String sign(Map<String, Object> claims, String subject) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(email)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(SignatureAlgorithm.HS256, jwtSecret)
+                .claims(claims)
+                .subject(subject)
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + jwtExpiration))
+                .signWith(signingKey, Jwts.SIG.HS256)
                 .compact();
     }
 
-    // Helper methods to extract renterId and renterName from the token
-    public Long extractRenterId(String token) {
-        return Jwts.parser()
-                .setSigningKey(jwtSecret)
-                .parseClaimsJws(token)
-                .getBody()
-                .get("renterId", Long.class);
-    }
-
-    public String extractRenterName(String token) {
-        return Jwts.parser()
-                .setSigningKey(jwtSecret)
-                .parseClaimsJws(token)
-                .getBody()
-                .get("renterName", String.class);
+    // jti identifies the token for revocation (see TokenDenylist)
+    private static Map<String, Object> principalClaims(String type, String role) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(Claims.ID, UUID.randomUUID().toString());
+        claims.put("type", type);
+        claims.put("roles", List.of(role));
+        return claims;
     }
 }
@@ -0,0 +1,10 @@
+package com.it342_rentease.it342_rentease_project.security;
+
+// Thrown when the password hashing queue is full or a hash waited too long.
+// Mapped to 503 by PasswordHashingExceptionHandler.
+public class PasswordHashingOverloadedException extends RuntimeException {
+
+    public PasswordHashingOverloadedException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,10 @@
+package com.it342_rentease.it342_rentease_project.security;
+
+// Token buckets behind RateLimitFilter. rate-limit.store picks the implementation:
+// "memory" (default, per instance) or "database" (shared by all instances through Postgres).
+public interface RateLimitBucketStore {
+
+    // Takes one token from the bucket for key; a new bucket starts full. Returns 0 when a
+    // token was taken, otherwise the milliseconds until the next token is available.
+    long tryConsume(String key, long capacity, double refillPerSecond);
+}
@@ -0,0 +1,138 @@
+package com.it342_rentease.it342_rentease_project.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Token-bucket limits for the routes that burn BCrypt or PayMongo quota. Runs right after
+// JwtFilter so "user" keys can use the verified token subject. Each rule is keyed by:
+//   ip    - client address (set server.forward-headers-strategy behind a proxy)
+//   user  - token subject, falling back to ip for anonymous requests
+//   route - the request path, shared by all clients
+// Rejected requests get 429 with Retry-After in seconds.
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    enum KeyType { IP, USER, ROUTE }
+
+    record Rule(String name, List<String> patterns, List<String> excluded, KeyType keyType,
+                long capacity, double refillPerSecond) {
+    }
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    @Autowired
+    private RateLimitBucketStore bucketStore;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${rate-limit.auth.key:ip}")
+    private String authKey;
+
+    @Value("${rate-limit.auth.capacity:10}")
+    private long authCapacity;
+
+    @Value("${rate-limit.auth.refill-per-minute:10}")
+    private double authRefillPerMinute;
+
+    @Value("${rate-limit.payments.key:user}")
+    private String paymentsKey;
+
+    @Value("${rate-limit.payments.capacity:30}")
+    private long paymentsCapacity;
+
+    @Value("${rate-limit.payments.refill-per-minute:60}")
+    private double paymentsRefillPerMinute;
+
+    private List<Rule> rules;
+    private Map<String, Counter> rejectedCounters;
+
+    @PostConstruct
+    void buildRules() {
+        rules = List.of(
+                new Rule("auth",
+                        List.of("/owners/login", "/api/renters/login", "/api/renters/register", "/auth/refresh"),
+                        List.of(),
+                        KeyType.valueOf(authKey.toUpperCase()), authCapacity, authRefillPerMinute / 60),
+                // Webhooks are signed and retried by PayMongo, so they are not limited
+                new Rule("payments",
+                        List.of("/payments/**"),
+                        List.of("/payments/webhook"),
+                        KeyType.valueOf(paymentsKey.toUpperCase()), paymentsCapacity, paymentsRefillPerMinute / 60));
+        rejectedCounters = new HashMap<>();
+        for (Rule rule : rules) {
+            rejectedCounters.put(rule.name(), Counter.builder("rate_limit.rejected")
+                    .description("Requests rejected by RateLimitFilter")
+                    .tag("rule", rule.name())
+                    .register(meterRegistry));
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getServletPath();
+        for (Rule rule : rules) {
+            if (!matches(rule, path)) {
+                continue;
+            }
+            long waitMs = bucketStore.tryConsume(rule.name() + ":" + key(rule, request, path),
+                    rule.capacity(), rule.refillPerSecond());
+            if (waitMs > 0) {
+                rejectedCounters.get(rule.name()).increment();
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, (waitMs + 999) / 1000)));
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.getWriter().write("{\"error\":\"Too many requests, try again later\"}");
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || "OPTIONS".equals(request.getMethod());
+    }
+
+    private static boolean matches(Rule rule, String path) {
+        return rule.patterns().stream().anyMatch(pattern -> PATH_MATCHER.match(pattern, path))
+                && rule.excluded().stream().noneMatch(pattern -> PATH_MATCHER.match(pattern, path));
+    }
+
+    private static String key(Rule rule, HttpServletRequest request, String path) {
+        switch (rule.keyType()) {
+            case USER:
+                Object principal = request.getAttribute(JwtPrincipal.REQUEST_ATTRIBUTE);
+                if (principal instanceof JwtPrincipal jwtPrincipal) {
+                    return "user:" + jwtPrincipal.getUsername();
+                }
+                return "ip:" + request.getRemoteAddr();
+            case ROUTE:
+                return "route:" + path;
+            default:
+                return "ip:" + request.getRemoteAddr();
+        }
+    }
+}
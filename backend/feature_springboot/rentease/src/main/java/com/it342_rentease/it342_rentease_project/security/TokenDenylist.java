@@ -0,0 +1,57 @@
+package com.it342_rentease.it342_rentease_project.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// In-memory revocation list checked by JwtFilter. Entries only need to live until the
+// tokens they cover expire, so the maps stay small. Per instance and lost on restart:
+// with several instances, a revocation only applies on the instance that received it.
+@Component
+public class TokenDenylist {
+
+    // jti -> expiry of that token (epoch ms)
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+    // subject -> tokens issued before this instant (epoch ms) are revoked
+    private final Map<String, Long> revokedBefore = new ConcurrentHashMap<>();
+
+    @Value("${jwt.expiration}")
+    private long jwtExpiration;
+
+    public void revoke(JwtPrincipal principal) {
+        if (principal.getTokenId() != null && principal.getExpiration() != null) {
+            revokedTokens.put(principal.getTokenId(), principal.getExpiration().getTime());
+        }
+    }
+
+    // Revokes every token of the subject issued up to now, e.g. after a password change
+    public void revokeAllFor(String subject) {
+        revokedBefore.put(subject, System.currentTimeMillis());
+    }
+
+    public boolean isRevoked(JwtPrincipal principal) {
+        if (principal.getTokenId() != null && revokedTokens.containsKey(principal.getTokenId())) {
+            return true;
+        }
+        Long cutoff = revokedBefore.get(principal.getUsername());
+        if (cutoff == null) {
+            return false;
+        }
+        // iat has second precision. Only tokens from earlier seconds are revoked, so a login right
+        // after the revocation still works; a token issued in the same second before it survives.
+        Date issuedAt = principal.getIssuedAt();
+        return issuedAt == null || issuedAt.getTime() / 1000 < cutoff / 1000;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.denylist.cleanup-interval-ms:600000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedBefore.values().removeIf(cutoff -> cutoff + jwtExpiration <= now);
+    }
+}
@@ -0,0 +1,98 @@
+package com.it342_rentease.it342_rentease_project.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Short-lived store for Idempotency-Key requests. The first request for a key runs the
+// action; retries and concurrent double taps with the same key wait for that result
+// and get it replayed instead of hitting the gateway again. Failed actions are not
+// cached, so the client can retry them with the same key. Results are kept for the TTL,
+// so actions should return plain values (maps, JSON trees), not managed entities.
+//
+// In-memory and per instance: a retry that lands on another instance is not deduplicated.
+@Service
+public class IdempotencyService {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final long waitTimeoutMillis;
+
+    public IdempotencyService(
+            @Value("${idempotency.ttl-seconds:600}") long ttlSeconds,
+            @Value("${idempotency.wait-timeout-ms:10000}") long waitTimeoutMillis) {
+        this.ttlMillis = Duration.ofSeconds(ttlSeconds).toMillis();
+        this.waitTimeoutMillis = waitTimeoutMillis;
+    }
+
+    // Runs action once per key within the TTL. A null or blank key disables deduplication.
+    // A duplicate that is still waiting after waitTimeoutMillis gets IdempotentRequestInProgressException.
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+
+        long now = System.currentTimeMillis();
+        Entry created = new Entry(new CompletableFuture<>(), now + ttlMillis);
+        Entry entry = entries.compute(key, (k, existing) ->
+                existing != null && existing.expiresAt > now ? existing : created);
+
+        if (entry != created) {
+            System.out.println("Replaying idempotent response for key " + key);
+            return (T) await(key, entry.result);
+        }
+
+        try {
+            T result = action.get();
+            entry.result.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            entries.remove(key, entry);
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.cleanup-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.expiresAt <= now && entry.result.isDone());
+    }
+
+    private Object await(String key, CompletableFuture<Object> result) {
+        try {
+            return result.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new IdempotentRequestInProgressException("A request with this Idempotency-Key is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotentRequestInProgressException("Interrupted while waiting for key " + key);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CompletionException(e.getCause());
+        }
+    }
+
+    private static final class Entry {
+        private final CompletableFuture<Object> result;
+        private final long expiresAt;
+
+        private Entry(CompletableFuture<Object> result, long expiresAt) {
+            this.result = result;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
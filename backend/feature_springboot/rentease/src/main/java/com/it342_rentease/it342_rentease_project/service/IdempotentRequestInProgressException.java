@@ -0,0 +1,10 @@
+package com.it342_rentease.it342_rentease_project.service;
+
+// Thrown to a duplicate Idempotency-Key request when the first request has not finished
+// within idempotency.wait-timeout-ms. Mapped to 409 by IdempotencyExceptionHandler.
+public class IdempotentRequestInProgressException extends RuntimeException {
+
+    public IdempotentRequestInProgressException(String message) {
+        super(message);
+    }
+}
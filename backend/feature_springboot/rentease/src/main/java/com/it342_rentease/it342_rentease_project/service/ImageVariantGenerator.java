@@ -0,0 +1,111 @@
+package com.it342_rentease.it342_rentease_project.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+// Produces downscaled JPEG variants of uploaded room images.
+@Component
+public class ImageVariantGenerator {
+
+    private final float jpegQuality;
+
+    public ImageVariantGenerator(@Value("${image.variants.jpeg-quality:0.8}") float jpegQuality) {
+        this.jpegQuality = jpegQuality;
+    }
+
+    // Returns one JPEG per width, scaled down to at most that many pixels wide and in the same
+    // order, or null when the format cannot be decoded (the original is then used as-is).
+    // The source is decoded once, subsampled for the largest width.
+    public List<byte[]> resize(MultipartFile image, int... maxWidths) throws IOException {
+        BufferedImage source = readSubsampled(image, Arrays.stream(maxWidths).max().orElseThrow());
+        if (source == null) {
+            return null;
+        }
+
+        List<byte[]> variants = new ArrayList<>(maxWidths.length);
+        for (int maxWidth : maxWidths) {
+            variants.add(encodeJpeg(scale(source, maxWidth)));
+        }
+        return variants;
+    }
+
+    private BufferedImage scale(BufferedImage source, int maxWidth) {
+        int width = Math.min(maxWidth, source.getWidth());
+        int height = Math.max(1, Math.round(source.getHeight() * (width / (float) source.getWidth())));
+
+        // Draw onto an opaque RGB canvas: JPEG has no alpha channel
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    // Decodes with source subsampling so a large photo is never fully expanded in memory
+    // just to produce a small variant.
+    private BufferedImage readSubsampled(MultipartFile image, int maxWidth) throws IOException {
+        try (InputStream in = image.getInputStream();
+             ImageInputStream imageInput = ImageIO.createImageInputStream(in)) {
+            if (imageInput == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInput);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageInput, true, true);
+                int subsampling = Math.max(1, reader.getWidth(0) / maxWidth);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOutput = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(imageOutput);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,98 @@
+package com.it342_rentease.it342_rentease_project.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.util.UriUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.Optional;
+
+// Keeps room images in a local directory (the repo's uploads/ by default) and serves them
+// through /rooms/image/{objectName}. Meant for a fully local stack, e.g. load testing.
+@Service
+@ConditionalOnProperty(name = "storage.type", havingValue = "local")
+public class LocalStorageService implements StorageService {
+
+    private final Path root;
+    private final String publicBaseUrl;
+
+    public LocalStorageService(
+            @Value("${storage.local.root:uploads}") String root,
+            @Value("${storage.local.public-url:http://localhost:8080}") String publicBaseUrl
+    ) throws IOException {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.publicBaseUrl = publicBaseUrl;
+        Files.createDirectories(this.root);
+    }
+
+    @Override
+    public String upload(String objectName, MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            write(objectName, in);
+        }
+        return publicUrl(objectName);
+    }
+
+    @Override
+    public String upload(String objectName, byte[] content, String contentType) throws IOException {
+        write(objectName, new ByteArrayInputStream(content));
+        return publicUrl(objectName);
+    }
+
+    @Override
+    public void delete(List<String> publicUrls) throws IOException {
+        for (String publicUrl : publicUrls) {
+            Files.deleteIfExists(resolve(objectName(publicUrl)));
+        }
+    }
+
+    @Override
+    public String objectName(String publicUrl) {
+        return UriUtils.decode(publicUrl.substring(publicUrl.lastIndexOf("/") + 1), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String publicUrl(String objectName) {
+        return publicBaseUrl + "/rooms/image/" + UriUtils.encodePathSegment(objectName, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public boolean isLocal() {
+        return true;
+    }
+
+    @Override
+    public Optional<Path> localFile(String objectName) {
+        Path file = resolve(objectName);
+        return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    // Writes to a temp file first so a half-written image is never served
+    private void write(String objectName, InputStream in) throws IOException {
+        Path temp = Files.createTempFile(root, ".upload-", ".tmp");
+        try {
+            Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(temp, resolve(objectName), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path resolve(String objectName) {
+        Path file = root.resolve(objectName).normalize();
+        if (!file.getParent().equals(root)) {
+            throw new IllegalArgumentException("Invalid object name: " + objectName);
+        }
+        return file;
+    }
+}
@@ -1,7 +1,7 @@
 package com.it342_rentease.it342_rentease_project.service;
 
-import com.it342_rentease.it342_rentease_project.model.Owner;
 import com.it342_rentease.it342_rentease_project.repository.OwnerRepository;
+import com.it342_rentease.it342_rentease_project.repository.PrincipalRecord;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Primary;
 import org.springframework.security.core.userdetails.*;
@@ -9,14 +9,17 @@ import org.springframework.stereotype.Service;
 
 @Service
 @Primary
-public class OwnerDetailsService implements UserDetailsService {
+public class OwnerDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    @Autowired
+    private PrincipalDirectory principalDirectory;
 
     @Autowired
     private OwnerRepository ownerRepository;
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Owner owner = ownerRepository.findByUsername(username)
+        PrincipalRecord owner = principalDirectory.findOwner(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
         return User.builder()
                 .username(owner.getUsername())
@@ -24,4 +27,14 @@ public class OwnerDetailsService implements UserDetailsService {
                 .roles("OWNER")
                 .build();
     }
+
+    // Called by DaoAuthenticationProvider after a login whose hash has an outdated cost. The new
+    // hash is computed before this call, so a shed rehash is handled in securityConfig instead.
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        if (ownerRepository.updatePassword(user.getUsername(), user.getPassword(), newPassword) > 0) {
+            principalDirectory.invalidate(user.getUsername());
+        }
+        return User.withUserDetails(user).password(newPassword).build();
+    }
 }
@@ -0,0 +1,78 @@
+package com.it342_rentease.it342_rentease_project.service;
+
+import com.it342_rentease.it342_rentease_project.model.OwnerStats;
+import com.it342_rentease.it342_rentease_project.repository.OwnerStatsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Objects;
+
+// Maintains the owner_stats read model. Listeners run synchronously and join the
+// publisher's transaction, so a rolled back change never moves the stats. Status changes
+// are published under the room's row lock (RoomService.updateRoomStatus), so two changes
+// to one room apply their deltas in order against the status each actually replaced.
+@Service
+public class OwnerStatsService {
+
+    @Autowired
+    private OwnerStatsRepository ownerStatsRepository;
+
+    @Transactional
+    public OwnerStats getStats(Long ownerId) {
+        return ownerStatsRepository.findById(ownerId).orElseGet(() -> {
+            ownerStatsRepository.rebuild(ownerId);
+            return ownerStatsRepository.findById(ownerId).orElseGet(() -> {
+                // Unknown owner: report empty stats without storing a row
+                OwnerStats empty = new OwnerStats();
+                empty.setOwnerId(ownerId);
+                return empty;
+            });
+        });
+    }
+
+    @EventListener
+    @Transactional
+    public void onRoomStatusChanged(RoomStatusChangedEvent event) {
+        if (event.ownerId() == null || Objects.equals(event.oldStatus(), event.newStatus())) {
+            return;
+        }
+        long total = (event.oldStatus() == null ? 1 : 0) - (event.newStatus() == null ? 1 : 0);
+        long available = is(event.newStatus(), "available") - is(event.oldStatus(), "available");
+        long rented = is(event.newStatus(), "rented") - is(event.oldStatus(), "rented");
+
+        if (ownerStatsRepository.applyRoomDelta(event.ownerId(), total, available, rented) == 0) {
+            // First event for this owner: build the row from the tables, which already include the change
+            ownerStatsRepository.rebuild(event.ownerId());
+        }
+    }
+
+    @EventListener
+    @Transactional
+    public void onPaymentPaid(PaymentPaidEvent event) {
+        if (event.ownerId() == null) {
+            return;
+        }
+        if (ownerStatsRepository.refreshRevenue(event.ownerId()) == 0) {
+            ownerStatsRepository.rebuild(event.ownerId());
+        }
+    }
+
+    // Verifies every row against the source tables and repairs drift, e.g. from writes
+    // that bypass the events (manual SQL)
+    @Scheduled(fixedDelayString = "${owner-stats.rebuild-interval-ms:3600000}",
+            initialDelayString = "${owner-stats.rebuild-initial-delay-ms:120000}")
+    @Transactional
+    public void rebuildAll() {
+        int corrected = ownerStatsRepository.rebuild(null);
+        if (corrected > 0) {
+            System.out.println("Owner stats rebuild corrected " + corrected + " rows");
+        }
+    }
+
+    private static long is(String status, String expected) {
+        return expected.equals(status) ? 1 : 0;
+    }
+}
@@ -0,0 +1,60 @@
+package com.it342_rentease.it342_rentease_project.service;
+
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+// Thin wrapper around the pooled PayMongo HTTP client. The auth headers are built once;
+// the secret key does not change at runtime.
+@Component
+public class PayMongoClient {
+
+    private static final ParameterizedTypeReference<Map<String, Object>> JSON_MAP =
+            new ParameterizedTypeReference<>() {};
+
+    private final RestTemplate restTemplate;
+    private final HttpHeaders headers;
+    private final PayMongoGatewayGuard gatewayGuard;
+
+    public PayMongoClient(@Qualifier("payMongoHttpClient") CloseableHttpClient httpClient,
+                          @Value("${paymongo.secret_key}") String secretKey,
+                          PayMongoGatewayGuard gatewayGuard) {
+        this.gatewayGuard = gatewayGuard;
+        this.restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+
+        HttpHeaders defaultHeaders = new HttpHeaders();
+        String encodedAuth = Base64.getEncoder().encodeToString((secretKey + ":").getBytes(StandardCharsets.UTF_8));
+        defaultHeaders.set(HttpHeaders.AUTHORIZATION, "Basic " + encodedAuth);
+        defaultHeaders.setContentType(MediaType.APPLICATION_JSON);
+        this.headers = HttpHeaders.readOnlyHttpHeaders(defaultHeaders);
+    }
+
+    public Map<String, Object> post(String url, Map<String, Object> body) {
+        return gatewayGuard.call(false, () -> {
+            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
+                    url, HttpMethod.POST, new HttpEntity<>(body, headers), JSON_MAP);
+            return response.getBody();
+        });
+    }
+
+    public Map<String, Object> get(String url) {
+        return gatewayGuard.call(true, () -> {
+            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
+                    url, HttpMethod.GET, new HttpEntity<>(headers), JSON_MAP);
+            return response.getBody();
+        });
+    }
+}
@@ -0,0 +1,184 @@
+package com.it342_rentease.it342_rentease_project.service;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+// Runs every PayMongo call through retry -> circuit breaker -> bulkhead.
+//
+// Only idempotent calls (GETs) are retried on timeouts and 5xx/429; POSTs are retried
+// only when the connection was never established, so a payment intent is never created
+// twice. Every retry also needs a token from the shared RetryBudget; the failure of the
+// last allowed attempt is marked so it never spends one.
+@Component
+public class PayMongoGatewayGuard {
+
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Retry readRetry;
+    private final Retry writeRetry;
+    private final RetryBudget retryBudget;
+    private final int maxAttempts;
+
+    public PayMongoGatewayGuard(
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            BulkheadRegistry bulkheadRegistry,
+            RetryRegistry retryRegistry,
+            RetryBudget payMongoRetryBudget,
+            @Value("${paymongo.resilience.max-attempts:3}") int maxAttempts,
+            @Value("${paymongo.resilience.retry-backoff-ms:200}") long retryBackoffMs) {
+        this.retryBudget = payMongoRetryBudget;
+        this.maxAttempts = maxAttempts;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("paymongo", CircuitBreakerConfig.from(circuitBreakerRegistry.getDefaultConfig())
+                .recordException(e -> !isClientError(e))
+                .build());
+        this.bulkhead = bulkheadRegistry.bulkhead("paymongo");
+
+        // Exponential backoff with +/-50% jitter so retries from many callers do not line up
+        IntervalFunction backoff = IntervalFunction.ofExponentialRandomBackoff(Duration.ofMillis(retryBackoffMs), 2.0, 0.5);
+        this.readRetry = retryRegistry.retry("paymongo-read", retryConfig(maxAttempts, backoff,
+                e -> isConnectFailure(e) || isTransient(e)));
+        this.writeRetry = retryRegistry.retry("paymongo-write", retryConfig(maxAttempts, backoff,
+                PayMongoGatewayGuard::isConnectFailure));
+    }
+
+    public <T> T call(boolean idempotent, Supplier<T> call) {
+        retryBudget.recordCall();
+        Supplier<T> attempt = CircuitBreaker.decorateSupplier(circuitBreaker,
+                Bulkhead.decorateSupplier(bulkhead, call));
+        AtomicInteger attempts = new AtomicInteger();
+        Supplier<T> guarded = Retry.decorateSupplier(idempotent ? readRetry : writeRetry, () -> {
+            boolean last = attempts.incrementAndGet() >= maxAttempts;
+            try {
+                return attempt.get();
+            } catch (RuntimeException e) {
+                throw last ? new LastAttemptFailure(e) : e;
+            }
+        });
+        try {
+            return guarded.get();
+        } catch (LastAttemptFailure e) {
+            throw rejectedOr((RuntimeException) e.getCause());
+        } catch (RuntimeException e) {
+            throw rejectedOr(e);
+        }
+    }
+
+    public <T> Mono<T> callAsync(boolean idempotent, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+                    retryBudget.recordCall();
+                    AtomicInteger attempts = new AtomicInteger();
+                    return Mono.defer(() -> {
+                                boolean last = attempts.incrementAndGet() >= maxAttempts;
+                                return Mono.defer(call)
+                                        .transformDeferred(BulkheadOperator.of(bulkhead))
+                                        .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                                        .onErrorMap(e -> last, LastAttemptFailure::new);
+                            })
+                            .transformDeferred(RetryOperator.of(idempotent ? readRetry : writeRetry));
+                })
+                .onErrorMap(LastAttemptFailure.class, Throwable::getCause)
+                .onErrorMap(e -> e instanceof CallNotPermittedException || e instanceof BulkheadFullException,
+                        this::unavailable);
+    }
+
+    private RetryConfig retryConfig(int maxAttempts, IntervalFunction backoff, Predicate<Throwable> retryable) {
+        return RetryConfig.custom()
+                .maxAttempts(maxAttempts)
+                .intervalFunction(backoff)
+                // Budget is checked last so tokens are only spent on failures that will be retried
+                .retryOnException(e -> !(e instanceof LastAttemptFailure)
+                        && retryable.test(e) && retryBudget.tryAcquire())
+                .build();
+    }
+
+    private RuntimeException rejectedOr(RuntimeException e) {
+        if (e instanceof CallNotPermittedException || e instanceof BulkheadFullException) {
+            return unavailable(e);
+        }
+        return e;
+    }
+
+    private PaymentGatewayUnavailableException unavailable(Throwable cause) {
+        System.err.println("PayMongo call rejected: " + cause.getMessage());
+        return new PaymentGatewayUnavailableException("Payment gateway is temporarily unavailable", cause);
+    }
+
+    // The request never reached PayMongo, so retrying cannot duplicate a side effect
+    private static boolean isConnectFailure(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof ConnectException
+                    || t instanceof ConnectTimeoutException
+                    || t instanceof ConnectionRequestTimeoutException
+                    || t.getClass().getSimpleName().equals("PoolAcquireTimeoutException")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isTransient(Throwable e) {
+        if (e instanceof ResourceAccessException || e instanceof WebClientRequestException || e instanceof TimeoutException) {
+            return true;
+        }
+        if (e instanceof HttpServerErrorException) {
+            return true;
+        }
+        if (e instanceof HttpClientErrorException clientError) {
+            return clientError.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
+        }
+        if (e instanceof WebClientResponseException responseError) {
+            return responseError.getStatusCode().is5xxServerError()
+                    || responseError.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
+        }
+        return false;
+    }
+
+    // 4xx answers (bad amount, unknown intent) mean PayMongo is healthy and must not open the breaker
+    private static boolean isClientError(Throwable e) {
+        if (e instanceof HttpClientErrorException clientError) {
+            return !clientError.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
+        }
+        if (e instanceof WebClientResponseException responseError) {
+            return responseError.getStatusCode().is4xxClientError()
+                    && !responseError.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
+        }
+        return false;
+    }
+
+    // Wraps the failure of the last allowed attempt so the retry predicate skips it
+    private static final class LastAttemptFailure extends RuntimeException {
+        LastAttemptFailure(Throwable cause) {
+            super(cause.getMessage(), cause, false, false);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.it342_rentease.it342_rentease_project.service;
+
+// Thrown instead of calling PayMongo when the circuit breaker is open or the
+// gateway bulkhead is full. Mapped to 503 by PaymentGatewayExceptionHandler.
+public class PaymentGatewayUnavailableException extends RuntimeException {
+
+    public PaymentGatewayUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,5 @@
+package com.it342_rentease.it342_rentease_project.service;
+
+// Published when a payment for one of the owner's rooms is stored as Paid
+public record PaymentPaidEvent(Long ownerId) {
+}
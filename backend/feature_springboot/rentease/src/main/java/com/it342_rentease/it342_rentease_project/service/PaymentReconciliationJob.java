@@ -0,0 +1,159 @@
+package com.it342_rentease.it342_rentease_project.service;
+
+import com.it342_rentease.it342_rentease_project.model.Payment;
+import com.it342_rentease.it342_rentease_project.repository.PaymentRepository;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+// Refreshes Pending payments from PayMongo so rows written by the savePayment fallback
+// (amount 0) and intents paid without a webhook converge on their real state.
+// Rows are scanned in keyset pages; each page is looked up with bounded concurrency
+// under a requests-per-second cap. Each lookup that leaves a row Pending counts against
+// max-checks, so abandoned intents drop out instead of being polled forever.
+@Component
+public class PaymentReconciliationJob {
+
+    // DEFERRED: no rate limiter permit in time; the row is retried next run without using a check
+    private enum Outcome { UPDATED, UNCHANGED, FAILED, DEFERRED, UNAVAILABLE }
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    @Qualifier("paymentReconciliationExecutor")
+    private ThreadPoolTaskExecutor paymentReconciliationExecutor;
+
+    @Autowired
+    private RateLimiter paymentReconciliationRateLimiter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${payment.reconciliation.page-size:100}")
+    private int pageSize;
+
+    @Value("${payment.reconciliation.max-checks:24}")
+    private int maxChecks;
+
+    private Timer runTimer;
+    private final Map<Outcome, Counter> outcomeCounters = new EnumMap<>(Outcome.class);
+
+    // Written by the scheduler thread, read by gauges
+    private volatile double lastRunThroughput;
+    private volatile long pendingBacklog;
+    private volatile long lastCompletedRunMillis = System.currentTimeMillis();
+
+    @PostConstruct
+    void registerMeters() {
+        runTimer = Timer.builder("payment.reconciliation.run")
+                .description("Duration of a payment reconciliation run")
+                .register(meterRegistry);
+        for (Outcome outcome : Outcome.values()) {
+            outcomeCounters.put(outcome, Counter.builder("payment.reconciliation.payments")
+                    .tag("outcome", outcome.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        Gauge.builder("payment.reconciliation.throughput", () -> lastRunThroughput)
+                .description("Payments checked per second in the last run")
+                .baseUnit("payments/s")
+                .register(meterRegistry);
+        Gauge.builder("payment.reconciliation.pending", () -> pendingBacklog)
+                .description("Pending payments left after the last run")
+                .register(meterRegistry);
+        Gauge.builder("payment.reconciliation.lag", () -> (System.currentTimeMillis() - lastCompletedRunMillis) / 1000.0)
+                .description("Seconds since the last completed reconciliation run")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${payment.reconciliation.interval-ms:300000}",
+            initialDelayString = "${payment.reconciliation.initial-delay-ms:60000}")
+    public void reconcilePendingPayments() {
+        long start = System.nanoTime();
+        Map<Outcome, Integer> tally = new EnumMap<>(Outcome.class);
+        int checked = 0;
+
+        long afterPaymentId = 0;
+        List<Payment> page;
+        do {
+            page = paymentRepository.findPageByStatus("Pending", afterPaymentId, maxChecks, PageRequest.of(0, pageSize));
+            if (page.isEmpty()) {
+                break;
+            }
+
+            List<CompletableFuture<Outcome>> lookups = page.stream()
+                    .map(payment -> CompletableFuture.supplyAsync(() -> reconcile(payment), paymentReconciliationExecutor))
+                    .toList();
+            for (CompletableFuture<Outcome> lookup : lookups) {
+                Outcome outcome = lookup.join();
+                tally.merge(outcome, 1, Integer::sum);
+                outcomeCounters.get(outcome).increment();
+                checked++;
+            }
+
+            if (tally.containsKey(Outcome.UNAVAILABLE)) {
+                // Breaker is open or bulkhead full; leave the rest for the next run
+                System.err.println("Payment reconciliation stopped early: gateway unavailable");
+                break;
+            }
+            afterPaymentId = page.get(page.size() - 1).getPaymentId();
+        } while (page.size() == pageSize);
+
+        long elapsedNanos = System.nanoTime() - start;
+        runTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        double elapsedSeconds = Math.max(elapsedNanos / 1e9, 0.001);
+        lastRunThroughput = checked / elapsedSeconds;
+        pendingBacklog = paymentRepository.countByStatus("Pending");
+        lastCompletedRunMillis = System.currentTimeMillis();
+
+        if (checked > 0) {
+            System.out.println("Payment reconciliation checked " + checked + " payments in "
+                    + String.format("%.1f", elapsedSeconds) + "s " + tally + ", " + pendingBacklog + " still pending");
+        }
+    }
+
+    private Outcome reconcile(Payment payment) {
+        if (!paymentReconciliationRateLimiter.acquirePermission()) {
+            return Outcome.DEFERRED;
+        }
+        Outcome outcome;
+        try {
+            Payment refreshed = paymentService.refreshPayment(payment.getPaymentIntentId(), payment.getRoom().getRoomId());
+            boolean changed = !Objects.equals(refreshed.getStatus(), payment.getStatus())
+                    || refreshed.getAmount() != payment.getAmount();
+            if ("Paid".equals(refreshed.getStatus())) {
+                return Outcome.UPDATED;
+            }
+            outcome = changed ? Outcome.UPDATED : Outcome.UNCHANGED;
+        } catch (PaymentGatewayUnavailableException e) {
+            return Outcome.UNAVAILABLE;
+        } catch (Exception e) {
+            System.err.println("Failed to reconcile payment " + payment.getPaymentIntentId() + ": " + e.getMessage());
+            outcome = Outcome.FAILED;
+        }
+        paymentRepository.recordReconcileCheck(payment.getPaymentId(), LocalDateTime.now());
+        return outcome;
+    }
+}
@@ -1,9 +1,12 @@
 package com.it342_rentease.it342_rentease_project.service;
 
 import com.it342_rentease.it342_rentease_project.model.PaymentReminder;
+import com.it342_rentease.it342_rentease_project.model.RentedUnit;
 import com.it342_rentease.it342_rentease_project.repository.PaymentReminderRepository;
+import com.it342_rentease.it342_rentease_project.repository.RentedUnitRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -14,6 +17,12 @@ public class PaymentReminderService {
     @Autowired
     private PaymentReminderRepository paymentReminderRepository;
 
+    @Autowired
+    private RentedUnitRepository rentedUnitRepository;
+
+    @Autowired
+    private RoomService roomService;
+
     public PaymentReminder create(PaymentReminder reminder) {
         // ✅ Add error handling here
         String note = reminder.getNote();
@@ -47,4 +56,33 @@ public class PaymentReminderService {
     public void delete(Long id) {
         paymentReminderRepository.deleteById(id);
     }
+
+    // Approves the booking: the room becomes rented and a RentedUnit links the renter to it
+    @Transactional
+    public Optional<PaymentReminder> approve(Long reminderId) {
+        Optional<PaymentReminder> reminderOpt = paymentReminderRepository.findById(reminderId);
+        reminderOpt.ifPresent(reminder -> {
+            reminder.setApprovalStatus("approved");
+            roomService.updateRoomStatus(reminder.getRoom().getRoomId(), "rented");
+            paymentReminderRepository.save(reminder);
+
+            RentedUnit rentedUnit = new RentedUnit();
+            rentedUnit.setRoom(reminder.getRoom());
+            rentedUnit.setRenter(reminder.getRenter());
+            rentedUnitRepository.save(rentedUnit);
+        });
+        return reminderOpt;
+    }
+
+    // Denies the booking and makes the room available again
+    @Transactional
+    public Optional<PaymentReminder> deny(Long reminderId) {
+        Optional<PaymentReminder> reminderOpt = paymentReminderRepository.findById(reminderId);
+        reminderOpt.ifPresent(reminder -> {
+            reminder.setApprovalStatus("denied");
+            roomService.updateRoomStatus(reminder.getRoom().getRoomId(), "available");
+            paymentReminderRepository.save(reminder);
+        });
+        return reminderOpt;
+    }
 }
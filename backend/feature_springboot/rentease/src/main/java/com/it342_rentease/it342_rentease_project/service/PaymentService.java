@@ -6,16 +6,19 @@ import com.it342_rentease.it342_rentease_project.model.Room;
 import com.it342_rentease.it342_rentease_project.repository.PaymentRepository;
 import com.it342_rentease.it342_rentease_project.repository.RentedUnitRepository;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.*;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 
 @Service
@@ -35,164 +38,154 @@ public class PaymentService {
     @Autowired
     private PaymentRepository paymentRepository;
 
-    private HttpHeaders createPayMongoHeaders() {
-        HttpHeaders headers = new HttpHeaders();
-        String encodedAuth = Base64.getEncoder().encodeToString((PAYMONGO_SECRET_KEY + ":").getBytes());
-        headers.set("Authorization", "Basic " + encodedAuth);
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        return headers;
-    }
+    @Autowired
+    private PayMongoClient payMongoClient;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ReactivePayMongoClient reactivePayMongoClient;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     public Map<String, Object> createPaymentIntent(String amount) {
+        requireEnv(PAYMONGO_INTENT_URL);
+        Map<String, Object> requestBody = paymentIntentRequest(amount);
+
+        System.out.println("=== Sending PayMongo PaymentIntent ===");
+        System.out.println(requestBody);
+
+        return payMongoClient.post(PAYMONGO_INTENT_URL, requestBody);
+    }
+
+    public Map<String, Object> createPaymentMethod(String name, String email, String phone, String type) {
+        requireEnv(PAYMONGO_METHOD_URL);
+        return payMongoClient.post(PAYMONGO_METHOD_URL, paymentMethodRequest(name, email, phone, type));
+    }
+
+    public Map<String, Object> attachPaymentIntent(String intentId, String paymentMethod, String clientKey, String returnUrl) {
+        requireEnv(PAYMONGO_INTENT_URL);
+        return payMongoClient.post(attachUrl(intentId), attachRequest(paymentMethod, clientKey, returnUrl));
+    }
+
+    public Map<String, Object> retrievePaymentIntent(String intentId) {
+        requireEnv(PAYMONGO_INTENT_URL);
+        String retrieveUrl = PAYMONGO_INTENT_URL + "/" + intentId;
+
+        try {
+            logger.info("Retrieving payment intent from PayMongo: " + retrieveUrl);
+            Map<String, Object> response = payMongoClient.get(retrieveUrl);
+            logger.info("Successfully retrieved payment intent: " + response);
+            return response;
+        } catch (HttpClientErrorException e) {
+            logger.severe("Failed to retrieve payment intent from PayMongo: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    // Non-blocking variants used by PaymentController. Env checks run on subscription
+    // so a misconfiguration surfaces as an error signal.
+
+    public Mono<Map<String, Object>> createPaymentIntentAsync(String amount) {
+        return Mono.defer(() -> {
+            requireEnv(PAYMONGO_INTENT_URL);
+            return reactivePayMongoClient.post(PAYMONGO_INTENT_URL, paymentIntentRequest(amount));
+        });
+    }
+
+    public Mono<Map<String, Object>> createPaymentMethodAsync(String name, String email, String phone, String type) {
+        return Mono.defer(() -> {
+            requireEnv(PAYMONGO_METHOD_URL);
+            return reactivePayMongoClient.post(PAYMONGO_METHOD_URL, paymentMethodRequest(name, email, phone, type));
+        });
+    }
+
+    public Mono<Map<String, Object>> attachPaymentIntentAsync(String intentId, String paymentMethod, String clientKey, String returnUrl) {
+        return Mono.defer(() -> {
+            requireEnv(PAYMONGO_INTENT_URL);
+            return reactivePayMongoClient.post(attachUrl(intentId), attachRequest(paymentMethod, clientKey, returnUrl));
+        });
+    }
+
+    public Mono<Map<String, Object>> retrievePaymentIntentAsync(String intentId) {
+        return Mono.defer(() -> {
+            requireEnv(PAYMONGO_INTENT_URL);
+            return reactivePayMongoClient.get(PAYMONGO_INTENT_URL + "/" + intentId);
+        }).doOnError(e -> logger.severe("Failed to retrieve payment intent from PayMongo: " + e.getMessage()));
+    }
+
+    private void requireEnv(String url) {
         if (PAYMONGO_SECRET_KEY == null || PAYMONGO_SECRET_KEY.isEmpty() ||
-            PAYMONGO_INTENT_URL == null || PAYMONGO_INTENT_URL.isEmpty()) {
+            url == null || url.isEmpty()) {
+            logger.severe("PayMongo ENV values are not set.");
             throw new IllegalArgumentException("PayMongo ENV values are not set.");
         }
-    
-        RestTemplate restTemplate = new RestTemplate(); 
-        HttpHeaders headers = createPayMongoHeaders();
-    
+    }
+
+    private String attachUrl(String intentId) {
+        return PAYMONGO_INTENT_URL + "/" + intentId + "/attach";
+    }
+
+    private static Map<String, Object> paymentIntentRequest(String amount) {
         Map<String, Object> attributes = new HashMap<>();
         attributes.put("amount", Integer.parseInt(amount) * 100);
         attributes.put("currency", "PHP");
         attributes.put("payment_method_allowed", List.of("gcash"));
         attributes.put("description", "RentEase Payment");
         attributes.put("statement_descriptor", "RentEase");
-    
-        Map<String, Object> data = Map.of("attributes", attributes);
-        Map<String, Object> requestBody = Map.of("data", data);
-    
-        System.out.println("=== Sending PayMongo PaymentIntent ===");
-        System.out.println(requestBody);
-    
-        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-        ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-            PAYMONGO_INTENT_URL,
-            HttpMethod.POST,
-            entity,
-            new ParameterizedTypeReference<>() {}
-        );
-    
-        return response.getBody();
+        return Map.of("data", Map.of("attributes", attributes));
     }
 
-    public Map<String, Object> createPaymentMethod(String name, String email, String phone, String type) {
-        if (PAYMONGO_SECRET_KEY == null || PAYMONGO_SECRET_KEY.isEmpty() ||
-            PAYMONGO_METHOD_URL == null || PAYMONGO_METHOD_URL.isEmpty()) {
-            throw new IllegalArgumentException("PayMongo ENV values are not set.");
-        }
-
-        RestTemplate restTemplate = new RestTemplate();
-        HttpHeaders headers = createPayMongoHeaders();
-
+    private static Map<String, Object> paymentMethodRequest(String name, String email, String phone, String type) {
         Map<String, Object> billing = Map.of(
             "name", name,
             "email", email,
             "phone", phone
         );
-
         Map<String, Object> attributes = Map.of(
             "billing", billing,
             "type", type
         );
-
-        Map<String, Object> data = Map.of("attributes", attributes);
-        Map<String, Object> requestBody = Map.of("data", data);
-
-        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-        ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-            PAYMONGO_METHOD_URL,
-            HttpMethod.POST,
-            entity,
-            new ParameterizedTypeReference<>() {}
-        );
-
-        return response.getBody();
+        return Map.of("data", Map.of("attributes", attributes));
     }
 
-    public Map<String, Object> attachPaymentIntent(String intentId, String paymentMethod, String clientKey, String returnUrl) {
-        if (PAYMONGO_SECRET_KEY == null || PAYMONGO_SECRET_KEY.isEmpty() ||
-            PAYMONGO_INTENT_URL == null || PAYMONGO_INTENT_URL.isEmpty()) {
-            throw new IllegalArgumentException("PayMongo ENV values are not set.");
-        }
-
-        RestTemplate restTemplate = new RestTemplate();
-        HttpHeaders headers = createPayMongoHeaders();
-
+    private static Map<String, Object> attachRequest(String paymentMethod, String clientKey, String returnUrl) {
         Map<String, Object> attributes = Map.of(
             "payment_method", paymentMethod,
             "client_key", clientKey,
             "return_url", returnUrl
         );
-
-        Map<String, Object> data = Map.of("attributes", attributes);
-        Map<String, Object> requestBody = Map.of("data", data);
-
-        String attachUrl = PAYMONGO_INTENT_URL + "/" + intentId + "/attach";
-        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
-        ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-            attachUrl,
-            HttpMethod.POST,
-            entity,
-            new ParameterizedTypeReference<>() {}
-        );
-
-        return response.getBody();
-    }
-
-    public Map<String, Object> retrievePaymentIntent(String intentId) {
-        if (PAYMONGO_SECRET_KEY == null || PAYMONGO_SECRET_KEY.isEmpty() ||
-            PAYMONGO_INTENT_URL == null || PAYMONGO_INTENT_URL.isEmpty()) {
-            logger.severe("PayMongo ENV values are not set.");
-            throw new IllegalArgumentException("PayMongo ENV values are not set.");
-        }
-
-        RestTemplate restTemplate = new RestTemplate();
-        HttpHeaders headers = createPayMongoHeaders();
-
-        String retrieveUrl = PAYMONGO_INTENT_URL + "/" + intentId;
-        HttpEntity<Void> entity = new HttpEntity<>(headers);
-
-        try {
-            logger.info("Retrieving payment intent from PayMongo: " + retrieveUrl);
-            ResponseEntity<Map<String, Object>> response = restTemplate.exchange(
-                retrieveUrl,
-                HttpMethod.GET,
-                entity,
-                new ParameterizedTypeReference<>() {}
-            );
-            logger.info("Successfully retrieved payment intent: " + response.getBody());
-            return response.getBody();
-        } catch (HttpClientErrorException e) {
-            logger.severe("Failed to retrieve payment intent from PayMongo: " + e.getMessage());
-            throw e;
-        }
+        return Map.of("data", Map.of("attributes", attributes));
     }
 
+    // Saves the intent's current state with a single upsert; concurrent saves for the same
+    // intent collapse onto one row. A row that is already settled (e.g. Paid by the webhook) is
+    // returned as is without asking PayMongo. A fallback Pending row is refreshed later by
+    // PaymentReconciliationJob, the next save or a webhook.
     public Payment savePayment(String paymentIntentId, Room room) {
-        // Check if this paymentIntentId was already saved
         Optional<Payment> existingPayment = paymentRepository.findByPaymentIntentId(paymentIntentId);
-        if (existingPayment.isPresent()) {
-            logger.info("Payment with intentId " + paymentIntentId + " already exists. Skipping save.");
-            return existingPayment.get(); // Return the existing record
+        if (existingPayment.isPresent() && !"Pending".equals(existingPayment.get().getStatus())) {
+            logger.info("Payment with intentId " + paymentIntentId + " is already " + existingPayment.get().getStatus() + ". Skipping gateway.");
+            return existingPayment.get();
         }
-    
-        Map<String, Object> paymentIntent;
         try {
-            paymentIntent = retrievePaymentIntent(paymentIntentId);
+            return refreshPayment(paymentIntentId, room.getRoomId());
         } catch (Exception e) {
             logger.severe("Failed to retrieve payment intent during save: " + e.getMessage());
-            // Fallback: Save with default values
-            Payment payment = new Payment();
-            payment.setPaymentIntentId(paymentIntentId);
-            payment.setAmount(0.0f);
-            payment.setStatus("Pending");
-            payment.setPaymentMethod("gcash");
-            payment.setPaidDate(null);
-            payment.setRoom(room);
-            return paymentRepository.save(payment);
+            // Fallback: record the intent as Pending without overwriting what we already know
+            return fresh(() -> paymentRepository.insertPendingIfAbsent(paymentIntentId, room.getRoomId()));
         }
-    
+    }
+
+    // Reads the intent from PayMongo and upserts the local row. Gateway failures propagate.
+    public Payment refreshPayment(String paymentIntentId, Long roomId) {
+        Map<String, Object> paymentIntent = retrievePaymentIntent(paymentIntentId);
+
         Map<String, Object> data = (Map<String, Object>) paymentIntent.get("data");
         Map<String, Object> attributes = (Map<String, Object>) data.get("attributes");
     
@@ -200,16 +193,42 @@ public class PaymentService {
         Integer amount = (Integer) attributes.get("amount");
         List<String> paymentMethods = (List<String>) attributes.get("payment_method_allowed");
         String paymentMethod = paymentMethods != null && !paymentMethods.isEmpty() ? paymentMethods.get(0) : "gcash";
-    
-        Payment payment = new Payment();
-        payment.setPaymentIntentId(paymentIntentId);
-        payment.setAmount(amount / 100.0f);
-        payment.setStatus(status.equals("succeeded") ? "Paid" : "Pending");
-        payment.setPaymentMethod(paymentMethod);
-        payment.setPaidDate(status.equals("succeeded") ? LocalDate.now() : null);
-        payment.setRoom(room);
-    
-        return paymentRepository.save(payment);
+        boolean succeeded = status.equals("succeeded");
+    
+        Payment payment = fresh(() -> paymentRepository.upsert(
+                paymentIntentId,
+                amount / 100.0f,
+                succeeded ? "Paid" : "Pending",
+                paymentMethod,
+                succeeded ? LocalDate.now() : null,
+                roomId));
+        if ("Paid".equals(payment.getStatus()) && payment.getRoom().getOwner() != null) {
+            eventPublisher.publishEvent(new PaymentPaidEvent(payment.getRoom().getOwner().getOwnerId()));
+        }
+        return payment;
+    }
+
+    // A native RETURNING row resolves to the instance already in the persistence context (open
+    // in view keeps one per request), which still holds the pre-upsert state; reload it.
+    private Payment fresh(Supplier<Payment> upsert) {
+        return transactionTemplate.execute(status -> {
+            Payment payment = upsert.get();
+            entityManager.refresh(payment);
+            return payment;
+        });
+    }
+
+    // The intent in PayMongo's response shape, built from the local row once it is Paid, so
+    // status pages polling a settled intent do not reach the gateway
+    public Optional<Map<String, Object>> getSettledPaymentIntent(String paymentIntentId) {
+        return paymentRepository.findByPaymentIntentId(paymentIntentId)
+                .filter(payment -> "Paid".equals(payment.getStatus()))
+                .map(payment -> Map.of("data", Map.of(
+                        "id", paymentIntentId,
+                        "attributes", Map.of(
+                                "status", "succeeded",
+                                "amount", Math.round(payment.getAmount() * 100),
+                                "payment_method_allowed", List.of(payment.getPaymentMethod() != null ? payment.getPaymentMethod() : "gcash")))));
     }
 
     public Optional<Payment> getPaymentByIntentId(String paymentIntentId) {
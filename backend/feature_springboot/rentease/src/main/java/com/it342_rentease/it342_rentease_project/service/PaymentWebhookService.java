@@ -0,0 +1,245 @@
+package com.it342_rentease.it342_rentease_project.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.it342_rentease.it342_rentease_project.model.Payment;
+import com.it342_rentease.it342_rentease_project.model.PaymentReminder;
+import com.it342_rentease.it342_rentease_project.model.PaymentWebhookEvent;
+import com.it342_rentease.it342_rentease_project.repository.PaymentReminderRepository;
+import com.it342_rentease.it342_rentease_project.repository.PaymentRepository;
+import com.it342_rentease.it342_rentease_project.repository.PaymentWebhookEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+// Verifies, records and applies PayMongo webhook events. The controller only verifies and
+// records; PaymentWebhookWorker applies recorded events in the background.
+@Service
+public class PaymentWebhookService {
+
+    public static final String PAYMENT_PAID = "payment.paid";
+    public static final String PAYMENT_FAILED = "payment.failed";
+
+    private static final Set<String> HANDLED_EVENTS = Set.of(PAYMENT_PAID, PAYMENT_FAILED);
+    private static final List<String> OPEN_REMINDER_STATUSES = List.of("unpaid", "failed");
+
+    @Autowired
+    private PaymentWebhookEventRepository paymentWebhookEventRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentReminderRepository paymentReminderRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${paymongo.webhook.secret:}")
+    private String webhookSecret;
+
+    @Value("${paymongo.webhook.tolerance-seconds:300}")
+    private long toleranceSeconds;
+
+    @Value("${paymongo.webhook.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${paymongo.webhook.initial-backoff-ms:30000}")
+    private long initialBackoffMs;
+
+    @Value("${paymongo.webhook.max-backoff-ms:3600000}")
+    private long maxBackoffMs;
+
+    // Checks a Paymongo-Signature header ("t=<unix>,te=<test sig>,li=<live sig>") against
+    // HMAC-SHA256(secret, t + "." + payload). Old timestamps are rejected to limit replays.
+    public boolean verifySignature(String signatureHeader, String payload) {
+        if (webhookSecret == null || webhookSecret.isEmpty() || signatureHeader == null) {
+            return false;
+        }
+
+        String timestamp = null;
+        String testSignature = null;
+        String liveSignature = null;
+        for (String part : signatureHeader.split(",")) {
+            String[] pair = part.trim().split("=", 2);
+            if (pair.length != 2) {
+                continue;
+            }
+            switch (pair[0]) {
+                case "t" -> timestamp = pair[1];
+                case "te" -> testSignature = pair[1];
+                case "li" -> liveSignature = pair[1];
+                default -> { }
+            }
+        }
+        if (timestamp == null) {
+            return false;
+        }
+
+        try {
+            long age = Math.abs(Instant.now().getEpochSecond() - Long.parseLong(timestamp));
+            if (age > toleranceSeconds) {
+                return false;
+            }
+        } catch (NumberFormatException e) {
+            return false;
+        }
+
+        byte[] expected = hmacSha256(timestamp + "." + payload);
+        return matches(expected, liveSignature) || matches(expected, testSignature);
+    }
+
+    // Records a verified event. Returns false for event types we ignore and for replays
+    // of an event id that was already recorded. Not transactional: a duplicate-key failure
+    // must not poison an outer transaction.
+    public boolean record(String payload) throws IOException {
+        JsonNode event = objectMapper.readTree(payload).path("data");
+        String eventId = event.path("id").asText(null);
+        JsonNode attributes = event.path("attributes");
+        String eventType = attributes.path("type").asText(null);
+        if (eventId == null || eventType == null) {
+            throw new IOException("Webhook payload has no event id or type");
+        }
+        if (!HANDLED_EVENTS.contains(eventType)) {
+            return false;
+        }
+        if (paymentWebhookEventRepository.existsById(eventId)) {
+            System.out.println("Ignoring replayed PayMongo event " + eventId);
+            return false;
+        }
+
+        JsonNode payment = attributes.path("data").path("attributes");
+        PaymentWebhookEvent webhookEvent = new PaymentWebhookEvent(
+                eventId,
+                eventType,
+                payment.path("payment_intent_id").asText(null),
+                payment.hasNonNull("amount") ? payment.path("amount").asInt() : null,
+                payment.path("source").path("type").asText(null));
+        try {
+            paymentWebhookEventRepository.saveAndFlush(webhookEvent);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent delivery of the same event won the insert
+            System.out.println("Ignoring replayed PayMongo event " + eventId);
+            return false;
+        }
+        return true;
+    }
+
+    // Moves the local Payment and the room's oldest open PaymentReminder to the event's outcome.
+    // Throws, leaving the event unprocessed, when the Payment has not been saved locally yet.
+    @Transactional
+    public void apply(PaymentWebhookEvent event) {
+        Optional<Payment> paymentOptional = event.getPaymentIntentId() == null
+                ? Optional.empty()
+                : paymentRepository.findByPaymentIntentId(event.getPaymentIntentId());
+
+        if (paymentOptional.isEmpty()) {
+            throw new IllegalStateException("No local payment for intent " + event.getPaymentIntentId());
+        }
+
+        Payment payment = paymentOptional.get();
+        boolean paid = PAYMENT_PAID.equals(event.getEventType());
+        // Events can arrive out of order; never downgrade a settled payment
+        if (paid || !"Paid".equals(payment.getStatus())) {
+            payment.setStatus(paid ? "Paid" : "Failed");
+            if (paid) {
+                payment.setPaidDate(LocalDate.now());
+                if (event.getAmount() != null) {
+                    payment.setAmount(event.getAmount() / 100.0f);
+                }
+                if (event.getPaymentMethod() != null) {
+                    payment.setPaymentMethod(event.getPaymentMethod());
+                }
+            }
+            paymentRepository.save(payment);
+            if (paid && payment.getRoom().getOwner() != null) {
+                eventPublisher.publishEvent(new PaymentPaidEvent(payment.getRoom().getOwner().getOwnerId()));
+            }
+
+            List<PaymentReminder> reminders = paymentReminderRepository
+                    .findByRoomRoomIdAndPaymentStatusInOrderByDueDateAscReminderIdAsc(
+                            payment.getRoom().getRoomId(), OPEN_REMINDER_STATUSES);
+            if (!reminders.isEmpty()) {
+                PaymentReminder reminder = reminders.get(0);
+                reminder.setPaymentStatus(paid ? "paid" : "failed");
+                paymentReminderRepository.save(reminder);
+            }
+        }
+
+        event.setProcessedAt(LocalDateTime.now());
+        event.setLastError(null);
+        paymentWebhookEventRepository.save(event);
+    }
+
+    // Records a failed apply in its own transaction, since apply's transaction has rolled back.
+    // Schedules the next attempt with exponential backoff, or dead-letters the event once
+    // maxAttempts is reached. Returns true if the event was dead-lettered.
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean recordFailure(String eventId, String error) {
+        Optional<PaymentWebhookEvent> eventOptional = paymentWebhookEventRepository.findById(eventId);
+        if (eventOptional.isEmpty()) {
+            return false;
+        }
+        PaymentWebhookEvent event = eventOptional.get();
+        LocalDateTime now = LocalDateTime.now();
+        event.setAttempts(event.getAttempts() + 1);
+        event.setLastError(error != null && error.length() > 1024 ? error.substring(0, 1024) : error);
+        boolean deadLettered = event.getAttempts() >= maxAttempts;
+        if (deadLettered) {
+            event.setDeadLetteredAt(now);
+        } else {
+            event.setNextAttemptAt(now.plus(backoff(event.getAttempts())));
+        }
+        paymentWebhookEventRepository.save(event);
+        return deadLettered;
+    }
+
+    // initialBackoff * 2^(attempts - 1), capped at maxBackoff
+    private Duration backoff(int attempts) {
+        int exponent = Math.min(attempts - 1, 20);
+        return Duration.ofMillis(Math.min(maxBackoffMs, initialBackoffMs << exponent));
+    }
+
+    private byte[] hmacSha256(String message) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(webhookSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return mac.doFinal(message.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    private static boolean matches(byte[] expected, String signature) {
+        if (signature == null || signature.isEmpty()) {
+            return false;
+        }
+        try {
+            return MessageDigest.isEqual(expected, HexFormat.of().parseHex(signature));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.it342_rentease.it342_rentease_project.service;
+
+import com.it342_rentease.it342_rentease_project.model.PaymentWebhookEvent;
+import com.it342_rentease.it342_rentease_project.repository.PaymentWebhookEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Applies recorded PayMongo webhook events off the request thread, oldest first.
+// An event that fails stays unprocessed and is retried with backoff until it is dead-lettered.
+@Component
+public class PaymentWebhookWorker {
+
+    @Autowired
+    private PaymentWebhookEventRepository paymentWebhookEventRepository;
+
+    @Autowired
+    private PaymentWebhookService paymentWebhookService;
+
+    @Value("${paymongo.webhook.batch-size:50}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${paymongo.webhook.interval-ms:2000}")
+    public void processPendingEvents() {
+        List<PaymentWebhookEvent> batch = paymentWebhookEventRepository
+                .findDue(LocalDateTime.now(), PageRequest.of(0, batchSize));
+        for (PaymentWebhookEvent event : batch) {
+            try {
+                paymentWebhookService.apply(event);
+                System.out.println("Applied PayMongo event " + event.getEventId() + " (" + event.getEventType() + ")");
+            } catch (Exception e) {
+                if (paymentWebhookService.recordFailure(event.getEventId(), e.getMessage())) {
+                    System.err.println("Dead-lettered PayMongo event " + event.getEventId() + " after repeated failures: " + e.getMessage());
+                } else {
+                    System.err.println("Failed to apply PayMongo event " + event.getEventId() + ", will retry: " + e.getMessage());
+                }
+            }
+        }
+    }
+}
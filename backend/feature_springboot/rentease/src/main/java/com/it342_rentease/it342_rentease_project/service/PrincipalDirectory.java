@@ -0,0 +1,92 @@
+package com.it342_rentease.it342_rentease_project.service;
+
+import com.it342_rentease.it342_rentease_project.repository.OwnerRepository;
+import com.it342_rentease.it342_rentease_project.repository.PrincipalRecord;
+import com.it342_rentease.it342_rentease_project.security.JwtUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Resolves an owner username or renter email to its account with one indexed query and
+// caches the result, including misses, in a bounded LRU with a TTL. Callers that change
+// a username, email, name or password must call invalidate for the old and new identity.
+//
+// In-memory and per instance: another instance serves stale entries until the TTL expires.
+@Service
+public class PrincipalDirectory {
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    private final Map<String, Entry> cache;
+    private final long ttlMillis;
+    private long invalidations;
+
+    public PrincipalDirectory(@Value("${principal-directory.cache.max-size:10000}") int maxSize,
+                              @Value("${principal-directory.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.ttlMillis = Duration.ofSeconds(ttlSeconds).toMillis();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public Optional<PrincipalRecord> findOwner(String username) {
+        return find(username, JwtUtils.OWNER);
+    }
+
+    public Optional<PrincipalRecord> findRenter(String email) {
+        return find(email, JwtUtils.RENTER);
+    }
+
+    public void invalidate(String identity) {
+        if (identity == null) {
+            return;
+        }
+        synchronized (cache) {
+            cache.remove(identity);
+            invalidations++;
+        }
+    }
+
+    private Optional<PrincipalRecord> find(String identity, String type) {
+        if (identity == null) {
+            return Optional.empty();
+        }
+        return resolve(identity).stream()
+                .filter(record -> type.equals(record.getType()))
+                .findFirst();
+    }
+
+    private List<PrincipalRecord> resolve(String identity) {
+        long now = System.currentTimeMillis();
+        long seenInvalidations;
+        synchronized (cache) {
+            Entry entry = cache.get(identity);
+            if (entry != null && entry.expiresAt > now) {
+                return entry.records;
+            }
+            seenInvalidations = invalidations;
+        }
+        // Loaded outside the lock. If anything was invalidated meanwhile the result may
+        // predate that change, so it is returned but not cached.
+        List<PrincipalRecord> records = List.copyOf(ownerRepository.findPrincipals(identity));
+        synchronized (cache) {
+            if (invalidations == seenInvalidations) {
+                cache.put(identity, new Entry(records, now + ttlMillis));
+            }
+        }
+        return records;
+    }
+
+    private record Entry(List<PrincipalRecord> records, long expiresAt) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.it342_rentease.it342_rentease_project.service;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+
+// Non-blocking counterpart of PayMongoClient. Requests run on the Reactor Netty event loop,
+// so a slow gateway holds a pooled connection instead of a Tomcat worker thread.
+@Component
+public class ReactivePayMongoClient implements DisposableBean {
+
+    private static final ParameterizedTypeReference<Map<String, Object>> JSON_MAP =
+            new ParameterizedTypeReference<>() {};
+
+    private final ConnectionProvider connectionProvider;
+    private final WebClient webClient;
+    private final PayMongoGatewayGuard gatewayGuard;
+
+    public ReactivePayMongoClient(
+            WebClient.Builder webClientBuilder,
+            PayMongoGatewayGuard gatewayGuard,
+            @Value("${paymongo.secret_key}") String secretKey,
+            @Value("${paymongo.http.max-connections:50}") int maxConnections,
+            @Value("${paymongo.http.connect-timeout-ms:3000}") int connectTimeoutMs,
+            @Value("${paymongo.http.read-timeout-ms:10000}") long readTimeoutMs,
+            @Value("${paymongo.http.pool-timeout-ms:2000}") long poolTimeoutMs) {
+        this.gatewayGuard = gatewayGuard;
+        this.connectionProvider = ConnectionProvider.builder("paymongo")
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(Duration.ofMillis(poolTimeoutMs))
+                .maxIdleTime(Duration.ofSeconds(30))
+                .maxLifeTime(Duration.ofMinutes(5))
+                .metrics(true)
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(readTimeoutMs));
+
+        String encodedAuth = Base64.getEncoder().encodeToString((secretKey + ":").getBytes(StandardCharsets.UTF_8));
+        this.webClient = webClientBuilder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Basic " + encodedAuth)
+                .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .build();
+    }
+
+    public Mono<Map<String, Object>> post(String url, Map<String, Object> body) {
+        return gatewayGuard.callAsync(false, () -> webClient.post()
+                .uri(url)
+                .bodyValue(body)
+                .retrieve()
+                .bodyToMono(JSON_MAP));
+    }
+
+    public Mono<Map<String, Object>> get(String url) {
+        return gatewayGuard.callAsync(true, () -> webClient.get()
+                .uri(url)
+                .retrieve()
+                .bodyToMono(JSON_MAP));
+    }
+
+    @Override
+    public void destroy() {
+        connectionProvider.disposeLater().block(Duration.ofSeconds(5));
+    }
+}
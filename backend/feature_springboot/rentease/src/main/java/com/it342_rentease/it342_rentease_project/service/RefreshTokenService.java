@@ -0,0 +1,133 @@
+package com.it342_rentease.it342_rentease_project.service;
+
+import com.it342_rentease.it342_rentease_project.model.RefreshToken;
+import com.it342_rentease.it342_rentease_project.repository.PrincipalRecord;
+import com.it342_rentease.it342_rentease_project.repository.RefreshTokenRepository;
+import com.it342_rentease.it342_rentease_project.security.JwtUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+// Long-lived refresh tokens next to the short-lived JWT access tokens. A refresh is one
+// indexed lookup by SHA-256 plus a revoke and an insert; no BCrypt is involved. The token
+// itself is 256 random bits, so a plain digest is enough to keep the stored value useless.
+@Service
+public class RefreshTokenService {
+
+    public record TokenPair(String accessToken, String refreshToken) {
+    }
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private PrincipalDirectory principalDirectory;
+
+    @Value("${jwt.refresh-expiration-ms:2592000000}")
+    private long refreshExpirationMs;
+
+    private final SecureRandom random = new SecureRandom();
+
+    // Starts a new token family, at login
+    public String issue(String principalType, String subject) {
+        return issue(principalType, subject, UUID.randomUUID().toString());
+    }
+
+    // Rotates the refresh token and mints a new access token. Empty when the token is unknown,
+    // expired or revoked, or its account no longer exists. A revoked token being presented means
+    // it was used twice, so its whole family is revoked. The revoke and the insert of the
+    // replacement commit together, so a failure cannot leave the client with no valid token.
+    @Transactional
+    public Optional<TokenPair> refresh(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            return Optional.empty();
+        }
+        Optional<RefreshToken> found = refreshTokenRepository.findByTokenHash(hash(rawToken));
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        RefreshToken token = found.get();
+        LocalDateTime now = LocalDateTime.now();
+        if (token.getExpiresAt().isBefore(now)) {
+            return Optional.empty();
+        }
+        if (token.getRevokedAt() != null || refreshTokenRepository.revoke(token.getRefreshTokenId(), now) == 0) {
+            System.err.println("Refresh token reuse detected for " + token.getSubject() + ", revoking its family");
+            refreshTokenRepository.revokeFamily(token.getFamilyId(), now);
+            return Optional.empty();
+        }
+
+        String accessToken = accessToken(token.getPrincipalType(), token.getSubject());
+        if (accessToken == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new TokenPair(accessToken,
+                issue(token.getPrincipalType(), token.getSubject(), token.getFamilyId())));
+    }
+
+    // Logout; unknown tokens are ignored
+    public void revoke(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            return;
+        }
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId(), LocalDateTime.now()));
+    }
+
+    // Credential changes
+    public void revokeAllFor(String principalType, String subject) {
+        refreshTokenRepository.revokeAllFor(principalType, subject, LocalDateTime.now());
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.refresh.cleanup-interval-ms:3600000}")
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            System.out.println("Deleted " + deleted + " expired refresh tokens");
+        }
+    }
+
+    private String issue(String principalType, String subject, String familyId) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        LocalDateTime now = LocalDateTime.now();
+        refreshTokenRepository.save(new RefreshToken(hash(rawToken), familyId, principalType, subject,
+                now, now.plus(Duration.ofMillis(refreshExpirationMs))));
+        return rawToken;
+    }
+
+    // Renter tokens carry renterId and renterName, read from the cached principal directory
+    private String accessToken(String principalType, String subject) {
+        if (JwtUtils.OWNER.equals(principalType)) {
+            return principalDirectory.findOwner(subject).map(owner -> jwtUtils.generateToken(subject)).orElse(null);
+        }
+        Optional<PrincipalRecord> renter = principalDirectory.findRenter(subject);
+        return renter.map(r -> jwtUtils.generateTokenForRenter(subject, r.getId(), r.getName())).orElse(null);
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import com.it342_rentease.it342_rentease_project.repository.RentedUnitRepository
 import com.it342_rentease.it342_rentease_project.repository.RoomRepository;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,13 +24,20 @@ public class RentedUnitService {
     @Autowired
     private RoomRepository roomRepository;
 
+    @Autowired
+    private RoomService roomService;
+
     @Autowired
     private PaymentReminderRepository paymentReminderRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Transactional
     public RentedUnit save(RentedUnit rentedUnit) {
         Long roomId = rentedUnit.getRoom().getRoomId();
-        Optional<Room> roomOptional = roomRepository.findById(roomId);
+        // Locked so two bookings of the same room cannot both pass the rented check
+        Optional<Room> roomOptional = roomService.lockRoom(roomId);
 
         if (roomOptional.isEmpty()) {
             throw new IllegalArgumentException("Room not found with ID: " + roomId);
@@ -42,8 +50,11 @@ public class RentedUnitService {
         }
 
         // ✅ Mark room as rented TEMPORARILY (still needs owner approval)
+        String oldStatus = room.getStatus();
         room.setStatus("unavailable");
         roomRepository.save(room);
+        eventPublisher.publishEvent(new RoomStatusChangedEvent(
+                room.getOwner() != null ? room.getOwner().getOwnerId() : null, oldStatus, room.getStatus()));
 
         // Save rented unit
         rentedUnit.setRoom(room);
@@ -101,8 +112,7 @@ public class RentedUnitService {
             rentedUnitRepository.deleteById(id);
 
             // 🛠 Step 2: Set room status back to "available"
-            room.setStatus("available");
-            roomRepository.save(room);
+            roomService.updateRoomStatus(room.getRoomId(), "available");
         } else {
             throw new IllegalArgumentException("Rented unit not found with ID: " + id);
         }
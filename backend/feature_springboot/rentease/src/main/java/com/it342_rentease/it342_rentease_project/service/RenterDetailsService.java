@@ -9,19 +9,17 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import com.it342_rentease.it342_rentease_project.repository.RenterRepository;
-
 @Service
 public class RenterDetailsService implements UserDetailsService {
 
     @Autowired
-    private RenterRepository renterRepository;
+    private PrincipalDirectory principalDirectory;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-        return renterRepository.findByEmail(email)
+        return principalDirectory.findRenter(email)
             .map(renter -> new org.springframework.security.core.userdetails.User(
-                    renter.getEmail(),
+                    renter.getUsername(),
                     renter.getPassword(),
                     List.of(new SimpleGrantedAuthority("ROLE_RENTER"))
             )).orElseThrow(() -> new UsernameNotFoundException("Renter not found"));
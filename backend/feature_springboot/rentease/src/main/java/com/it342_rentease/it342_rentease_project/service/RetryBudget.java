@@ -0,0 +1,33 @@
+package com.it342_rentease.it342_rentease_project.service;
+
+// Caps retries to a fraction of real traffic. Every call deposits `ratio` tokens (up to
+// maxTokens) and every retry spends one, so during an outage retries die out instead of
+// multiplying the load on the gateway.
+public class RetryBudget {
+
+    private final double ratio;
+    private final double maxTokens;
+    private double tokens;
+
+    public RetryBudget(double ratio, double maxTokens) {
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+        this.tokens = maxTokens;
+    }
+
+    public synchronized void recordCall() {
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    public synchronized double available() {
+        return tokens;
+    }
+}
@@ -0,0 +1,151 @@
+package com.it342_rentease.it342_rentease_project.service;
+
+import com.it342_rentease.it342_rentease_project.model.RoomImage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Uploads and deletes room images through the configured StorageService.
+ *
+ * Uploads run concurrently on the imageUploadExecutor and are meant to be called
+ * outside of any DB transaction. If one upload fails, the images that did make it
+ * are deleted again so no orphans are left in the bucket. Every decodable image is
+ * stored with a medium and a thumbnail JPEG variant next to the original; images that
+ * cannot be decoded are stored without variants.
+ */
+@Service
+public class RoomImageService {
+
+    @Autowired
+    private StorageService storageService;
+
+    @Autowired
+    @Qualifier("imageUploadExecutor")
+    private ThreadPoolTaskExecutor imageUploadExecutor;
+
+    @Autowired
+    private ImageVariantGenerator imageVariantGenerator;
+
+    @Autowired
+    private StorageDeletionService storageDeletionService;
+
+    private final int mediumWidth;
+    private final int thumbnailWidth;
+
+    public RoomImageService(
+            @Value("${image.variants.medium-width:960}") int mediumWidth,
+            @Value("${image.variants.thumbnail-width:320}") int thumbnailWidth
+    ) {
+        this.mediumWidth = mediumWidth;
+        this.thumbnailWidth = thumbnailWidth;
+    }
+
+    // Returns the uploaded images with their variant URLs, in the same order as the input
+    public List<RoomImage> uploadImages(List<MultipartFile> images) throws IOException {
+        List<RoomImage> uploaded = new ArrayList<>();
+        if (images == null || images.isEmpty()) {
+            System.out.println("No images provided");
+            return uploaded;
+        }
+
+        System.out.println("Processing " + images.size() + " images");
+        List<Future<RoomImage>> uploads = new ArrayList<>();
+        for (MultipartFile image : images) {
+            if (!image.isEmpty()) {
+                uploads.add(imageUploadExecutor.submit(() -> uploadImage(image)));
+            } else {
+                System.out.println("Skipping empty image file");
+            }
+        }
+
+        // Wait for every upload, even after a failure, so we know exactly what to roll back
+        Exception failure = null;
+        for (Future<RoomImage> upload : uploads) {
+            try {
+                uploaded.add(upload.get());
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+
+        if (failure != null) {
+            System.err.println("Failed to upload image: " + failure.getMessage());
+            deleteImages(storagePaths(uploaded));
+            throw new IOException("Failed to upload image", failure);
+        }
+        return uploaded;
+    }
+
+    // Every stored object behind the given images: originals plus their variants
+    public static List<String> storagePaths(List<RoomImage> images) {
+        List<String> paths = new ArrayList<>();
+        for (RoomImage image : images) {
+            paths.add(image.getImagePath());
+            if (image.getMediumPath() != null) {
+                paths.add(image.getMediumPath());
+            }
+            if (image.getThumbnailPath() != null) {
+                paths.add(image.getThumbnailPath());
+            }
+        }
+        return paths;
+    }
+
+    // Queues the objects for background deletion (see StorageDeletionWorker). Called inside a
+    // transaction, the queue rows commit or roll back together with the caller's changes.
+    public void deleteImages(List<String> imagePaths) {
+        storageDeletionService.enqueue(imagePaths);
+    }
+
+    private RoomImage uploadImage(MultipartFile image) throws IOException {
+        String fileName = UUID.randomUUID().toString() + "_" + image.getOriginalFilename();
+        System.out.println("Uploading image: " + fileName);
+        String publicUrl = storageService.upload(fileName, image);
+        System.out.println("Image uploaded successfully: " + publicUrl);
+
+        RoomImage roomImage = new RoomImage(publicUrl, null, null);
+        try {
+            String baseName = fileName.contains(".") ? fileName.substring(0, fileName.lastIndexOf('.')) : fileName;
+            List<byte[]> variants = imageVariantGenerator.resize(image, mediumWidth, thumbnailWidth);
+            if (variants != null) {
+                roomImage.setMediumPath(storageService.upload(
+                        "medium_" + baseName + ".jpg", variants.get(0), MediaType.IMAGE_JPEG_VALUE));
+                roomImage.setThumbnailPath(storageService.upload(
+                        "thumb_" + baseName + ".jpg", variants.get(1), MediaType.IMAGE_JPEG_VALUE));
+            } else {
+                System.out.println("No variants generated for unsupported image format: " + fileName);
+            }
+        } catch (Exception e) {
+            // Variants are optional: ImageIO rejects some images browsers show fine (CMYK
+            // JPEGs, truncated files), so keep the original and drop any partial variant
+            System.err.println("Storing " + fileName + " without variants: " + e.getMessage());
+            List<String> partial = new ArrayList<>();
+            if (roomImage.getMediumPath() != null) {
+                partial.add(roomImage.getMediumPath());
+            }
+            deleteImages(partial);
+            roomImage.setMediumPath(null);
+            roomImage.setThumbnailPath(null);
+        }
+        return roomImage;
+    }
+}
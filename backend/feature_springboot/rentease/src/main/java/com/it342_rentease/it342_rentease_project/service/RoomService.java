@@ -4,26 +4,33 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.it342_rentease.it342_rentease_project.model.Owner;
 import com.it342_rentease.it342_rentease_project.model.RentedUnit;
+import com.it342_rentease.it342_rentease_project.model.Renter;
 import com.it342_rentease.it342_rentease_project.model.Room;
+import com.it342_rentease.it342_rentease_project.model.RoomImage;
 import com.it342_rentease.it342_rentease_project.repository.OwnerRepository;
 import com.it342_rentease.it342_rentease_project.repository.RentedUnitRepository;
 import com.it342_rentease.it342_rentease_project.repository.RoomRepository;
+import com.it342_rentease.it342_rentease_project.repository.RoomSpecifications;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.UUID;
 
 @Service
 public class RoomService {
@@ -35,96 +42,59 @@ public class RoomService {
     private OwnerRepository ownerRepository;
 
     @Autowired
-    private RestTemplate restTemplate;
+    private RoomImageService roomImageService;
 
     @Autowired
-private RentedUnitRepository rentedUnitRepository;
+    private TransactionTemplate transactionTemplate;
 
-    private final String supabaseUrl;
-    private final String supabaseKey;
-    private final String bucketName;
-    private final String storageUrl;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
-    public RoomService(
-            @Value("${supabase.url}") String supabaseUrl,
-            @Value("${supabase.key}") String supabaseKey,
-            @Value("${supabase.bucket}") String bucketName,
-            @Value("${supabase.storage-url}") String storageUrl
-    ) {
-        this.supabaseUrl = supabaseUrl;
-        this.supabaseKey = supabaseKey;
-        this.bucketName = bucketName;
-        this.storageUrl = storageUrl;
-    }
+    @Autowired
+private RentedUnitRepository rentedUnitRepository;
 
-    @Transactional
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Image uploads run before any DB access and outside a transaction: with
+    // open-in-view the first query pins a connection for the rest of the request,
+    // so uploading first keeps a slow storage bucket from holding one. Uploaded
+    // images are removed again if the DB write fails.
     public Room createRoom(Room room, List<MultipartFile> images) throws IOException {
         System.out.println("Creating room with data: " + room);
-        if (room.getOwner() != null && room.getOwner().getOwnerId() != null) {
-            Optional<Owner> owner = ownerRepository.findById(room.getOwner().getOwnerId());
-            if (owner.isPresent()) {
-                room.setOwner(owner.get());
-                // Populate transient fields
-                room.setOwnerId(owner.get().getOwnerId());
-                room.setOwnerName(owner.get().getUsername());
-            } else {
-                throw new IllegalArgumentException("Owner with ID " + room.getOwner().getOwnerId() + " not found");
-            }
-        } else {
+        if (room.getOwner() == null || room.getOwner().getOwnerId() == null) {
             throw new IllegalArgumentException("Owner must be specified for the Room");
         }
 
-        List<String> imagePaths = new ArrayList<>();
-        if (images != null && !images.isEmpty()) {
-            System.out.println("Processing " + images.size() + " images");
-            for (MultipartFile image : images) {
-                if (!image.isEmpty()) {
-                    String fileName = UUID.randomUUID().toString() + "_" + image.getOriginalFilename();
-                    System.out.println("Uploading image to Supabase: " + fileName);
-                    try {
-                        HttpHeaders headers = new HttpHeaders();
-                        headers.setBearerAuth(supabaseKey);
-                        headers.set("Content-Type", image.getContentType());
-
-                        HttpEntity<byte[]> requestEntity = new HttpEntity<>(image.getBytes(), headers);
-
-                        String uploadUrl = String.format("%s/%s/%s", storageUrl, bucketName, fileName);
-                        ResponseEntity<String> response = restTemplate.exchange(
-                                uploadUrl,
-                                HttpMethod.POST,
-                                requestEntity,
-                                String.class
-                        );
+        List<RoomImage> uploaded = roomImageService.uploadImages(images);
+        room.setImages(new ArrayList<>(uploaded));
+        System.out.println("Image paths to save: " + room.getImagePaths());
 
-                        if (response.getStatusCode().is2xxSuccessful()) {
-                            String publicUrl = String.format("%s/public/%s/%s", storageUrl, bucketName, fileName);
-                            imagePaths.add(publicUrl);
-                            System.out.println("Image uploaded successfully: " + publicUrl);
-                        } else {
-                            throw new IOException("Failed to upload image to Supabase: " + response.getStatusCode());
-                        }
-                    } catch (Exception e) {
-                        System.err.println("Failed to upload image to Supabase: " + e.getMessage());
-                        throw new IOException("Failed to upload image to Supabase", e);
-                    }
-                } else {
-                    System.out.println("Skipping empty image file");
+        try {
+            Room savedRoom = transactionTemplate.execute(status -> {
+                Optional<Owner> owner = ownerRepository.findById(room.getOwner().getOwnerId());
+                if (owner.isEmpty()) {
+                    throw new IllegalArgumentException("Owner with ID " + room.getOwner().getOwnerId() + " not found");
                 }
-            }
-        } else {
-            System.out.println("No images provided");
+                room.setOwner(owner.get());
+                // Populate transient fields
+                room.setOwnerId(owner.get().getOwnerId());
+                room.setOwnerName(owner.get().getUsername());
+                Room saved = roomRepository.save(room);
+                eventPublisher.publishEvent(new RoomStatusChangedEvent(owner.get().getOwnerId(), null, saved.getStatus()));
+                return saved;
+            });
+            System.out.println("Room saved with ID: " + savedRoom.getRoomId());
+            return savedRoom;
+        } catch (RuntimeException e) {
+            roomImageService.deleteImages(RoomImageService.storagePaths(uploaded));
+            throw e;
         }
-        room.setImagePaths(imagePaths);
-        System.out.println("Image paths to save: " + imagePaths);
-
-        Room savedRoom = roomRepository.save(room);
-        System.out.println("Room saved with ID: " + savedRoom.getRoomId());
-        return savedRoom;
     }
 
     @Transactional
     public List<Room> getAllRooms() {
-        List<Room> rooms = roomRepository.findAll();
+        List<Room> rooms = roomRepository.findAllWithOwnerAndImages();
         // Populate ownerId and ownerName for each room
         for (Room room : rooms) {
             if (room.getOwner() != null) {
@@ -135,9 +105,27 @@ private RentedUnitRepository rentedUnitRepository;
         return rooms;
     }
 
+    @Transactional
+    public Page<Room> searchRooms(String city, String status, Double minFee, Double maxFee,
+                                  Integer numberOfRooms, Pageable pageable) {
+        Specification<Room> spec = Specification.where(RoomSpecifications.cityEquals(city))
+                .and(RoomSpecifications.statusEquals(status))
+                .and(RoomSpecifications.rentalFeeBetween(minFee, maxFee))
+                .and(RoomSpecifications.numberOfRoomsAtLeast(numberOfRooms));
+        Page<Room> page = roomRepository.findAll(spec, pageable);
+        // Populate ownerId and ownerName for each room on this page
+        for (Room room : page.getContent()) {
+            if (room.getOwner() != null) {
+                room.setOwnerId(room.getOwner().getOwnerId());
+                room.setOwnerName(room.getOwner().getUsername());
+            }
+        }
+        return page;
+    }
+
     @Transactional
     public Optional<Room> getRoomById(Long roomId) {
-        Optional<Room> roomOptional = roomRepository.findById(roomId);
+        Optional<Room> roomOptional = roomRepository.findByIdWithOwnerAndImages(roomId);
         // Populate ownerId and ownerName if room exists
         if (roomOptional.isPresent()) {
             Room room = roomOptional.get();
@@ -149,119 +137,117 @@ private RentedUnitRepository rentedUnitRepository;
         return roomOptional;
     }
 
-    @Transactional
     public Room updateRoom(Long roomId, Room room, List<MultipartFile> images, String removedImagesJson) throws IOException {
         System.out.println("Updating room with ID: " + roomId);
-        Optional<Room> existingRoom = roomRepository.findById(roomId);
-        if (existingRoom.isPresent()) {
-            Room updatedRoom = existingRoom.get();
-            if (room.getOwner() != null && room.getOwner().getOwnerId() != null) {
-                Optional<Owner> owner = ownerRepository.findById(room.getOwner().getOwnerId());
-                if (owner.isPresent()) {
-                    updatedRoom.setOwner(owner.get());
-                    updatedRoom.setOwnerId(owner.get().getOwnerId());
-                    updatedRoom.setOwnerName(owner.get().getUsername());
-                } else {
-                    throw new IllegalArgumentException("Owner with ID " + room.getOwner().getOwnerId() + " not found");
-                }
+        List<String> removedImages = new ArrayList<>();
+        if (removedImagesJson != null && !removedImagesJson.isEmpty()) {
+            ObjectMapper objectMapper = new ObjectMapper();
+            try {
+                removedImages = objectMapper.readValue(removedImagesJson, new TypeReference<List<String>>(){});
+            } catch (Exception e) {
+                throw new IOException("Failed to parse removedImages JSON", e);
             }
-            updatedRoom.setUnitName(room.getUnitName());
-            updatedRoom.setNumberOfRooms(room.getNumberOfRooms());
-            updatedRoom.setDescription(room.getDescription());
-            updatedRoom.setRentalFee(room.getRentalFee());
-            updatedRoom.setAddressLine1(room.getAddressLine1());
-            updatedRoom.setAddressLine2(room.getAddressLine2());
-            updatedRoom.setCity(room.getCity());
-            updatedRoom.setPostalCode(room.getPostalCode());
-
-            List<String> imagePaths = updatedRoom.getImagePaths();
-
-            if (removedImagesJson != null && !removedImagesJson.isEmpty()) {
-                ObjectMapper objectMapper = new ObjectMapper();
-                List<String> removedImages;
-                try {
-                    removedImages = objectMapper.readValue(removedImagesJson, new TypeReference<List<String>>(){});
-                } catch (Exception e) {
-                    throw new IOException("Failed to parse removedImages JSON", e);
-                }
-
-                for (String imagePath : removedImages) {
-                    if (imagePath != null && !imagePath.isEmpty()) {
-                        imagePaths.remove(imagePath);
-                        String fileName = imagePath.substring(imagePath.lastIndexOf("/") + 1);
-                        System.out.println("Deleting image from Supabase: " + fileName);
-                        try {
-                            HttpHeaders headers = new HttpHeaders();
-                            headers.setBearerAuth(supabaseKey);
-                            HttpEntity<String> requestEntity = new HttpEntity<>(headers);
-                            String deleteUrl = String.format("%s/%s/%s", storageUrl, bucketName, fileName);
-                            ResponseEntity<String> response = restTemplate.exchange(
-                                    deleteUrl,
-                                    HttpMethod.DELETE,
-                                    requestEntity,
-                                    String.class
-                            );
-
-                            if (response.getStatusCode().is2xxSuccessful()) {
-                                System.out.println("Image deleted successfully: " + fileName);
-                            } else {
-                                System.err.println("Failed to delete image from Supabase: " + response.getStatusCode());
-                            }
-                        } catch (Exception e) {
-                            System.err.println("Failed to delete image from Supabase: " + e.getMessage());
-                        }
-                    }
-                }
-            }
-
-            if (images != null && !images.isEmpty()) {
-                System.out.println("Processing " + images.size() + " images for update");
-                for (MultipartFile image : images) {
-                    if (!image.isEmpty()) {
-                        String fileName = UUID.randomUUID().toString() + "_" + image.getOriginalFilename();
-                        System.out.println("Uploading image to Supabase: " + fileName);
-                        try {
-                            HttpHeaders headers = new HttpHeaders();
-                            headers.setBearerAuth(supabaseKey);
-                            headers.set("Content-Type", image.getContentType());
+        }
 
-                            HttpEntity<byte[]> requestEntity = new HttpEntity<>(image.getBytes(), headers);
+        // Upload first, outside the transaction; roll the uploads back if the update fails
+        List<RoomImage> uploaded = roomImageService.uploadImages(images);
+        Room savedRoom;
+        try {
+            List<String> toRemove = removedImages;
+            savedRoom = transactionTemplate.execute(status -> applyRoomUpdate(roomId, room, toRemove, uploaded));
+        } catch (RuntimeException e) {
+            roomImageService.deleteImages(RoomImageService.storagePaths(uploaded));
+            throw e;
+        }
+        if (savedRoom == null) {
+            roomImageService.deleteImages(RoomImageService.storagePaths(uploaded));
+            return null;
+        }
 
-                            String uploadUrl = String.format("%s/%s/%s", storageUrl, bucketName, fileName);
-                            ResponseEntity<String> response = restTemplate.exchange(
-                                    uploadUrl,
-                                    HttpMethod.POST,
-                                    requestEntity,
-                                    String.class
-                            );
+        System.out.println("Room updated with ID: " + savedRoom.getRoomId());
+        return savedRoom;
+    }
 
-                            if (response.getStatusCode().is2xxSuccessful()) {
-                                String publicUrl = String.format("%s/public/%s/%s", storageUrl, bucketName, fileName);
-                                imagePaths.add(publicUrl);
-                                System.out.println("Image uploaded successfully: " + publicUrl);
-                            } else {
-                                throw new IOException("Failed to upload image to Supabase: " + response.getStatusCode());
-                            }
-                        } catch (Exception e) {
-                            System.err.println("Failed to upload image to Supabase: " + e.getMessage());
-                            throw new IOException("Failed to upload image to Supabase", e);
-                        }
-                    } else {
-                        System.out.println("Skipping empty image file");
-                    }
+    private Room applyRoomUpdate(Long roomId, Room room, List<String> removedImages,
+                                 List<RoomImage> uploaded) {
+        // Locked like a status change, since moving the room also moves its owner_stats counts
+        Optional<Room> existingRoom = lockRoom(roomId);
+        if (existingRoom.isEmpty()) {
+            return null;
+        }
+        Room updatedRoom = existingRoom.get();
+        if (room.getOwner() != null && room.getOwner().getOwnerId() != null) {
+            Optional<Owner> owner = ownerRepository.findById(room.getOwner().getOwnerId());
+            if (owner.isPresent()) {
+                Long oldOwnerId = updatedRoom.getOwner() != null ? updatedRoom.getOwner().getOwnerId() : null;
+                updatedRoom.setOwner(owner.get());
+                updatedRoom.setOwnerId(owner.get().getOwnerId());
+                updatedRoom.setOwnerName(owner.get().getUsername());
+                if (!owner.get().getOwnerId().equals(oldOwnerId)) {
+                    // Leaves the old owner's stats and joins the new owner's
+                    eventPublisher.publishEvent(new RoomStatusChangedEvent(oldOwnerId, updatedRoom.getStatus(), null));
+                    eventPublisher.publishEvent(new RoomStatusChangedEvent(owner.get().getOwnerId(), null, updatedRoom.getStatus()));
+                    // The room's Paid payments move with it, so both revenues are re-summed
+                    eventPublisher.publishEvent(new PaymentPaidEvent(oldOwnerId));
+                    eventPublisher.publishEvent(new PaymentPaidEvent(owner.get().getOwnerId()));
                 }
             } else {
-                System.out.println("No new images provided for update");
+                throw new IllegalArgumentException("Owner with ID " + room.getOwner().getOwnerId() + " not found");
             }
+        }
+        updatedRoom.setUnitName(room.getUnitName());
+        updatedRoom.setNumberOfRooms(room.getNumberOfRooms());
+        updatedRoom.setDescription(room.getDescription());
+        updatedRoom.setRentalFee(room.getRentalFee());
+        updatedRoom.setAddressLine1(room.getAddressLine1());
+        updatedRoom.setAddressLine2(room.getAddressLine2());
+        updatedRoom.setCity(room.getCity());
+        updatedRoom.setPostalCode(room.getPostalCode());
+
+        List<RoomImage> roomImages = updatedRoom.getImages();
+        List<String> deletedPaths = new ArrayList<>();
+        for (String imagePath : removedImages) {
+            // Only delete objects that actually belonged to this room
+            List<RoomImage> removed = roomImages.stream()
+                    .filter(image -> imagePath != null && imagePath.equals(image.getImagePath()))
+                    .toList();
+            roomImages.removeAll(removed);
+            deletedPaths.addAll(RoomImageService.storagePaths(removed));
+        }
+        roomImages.addAll(uploaded);
+        System.out.println("Image paths to save: " + updatedRoom.getImagePaths());
 
-            updatedRoom.setImagePaths(imagePaths);
-            System.out.println("Image paths to save: " + imagePaths);
+        // Queued in this transaction, so removed images are only deleted if the update commits
+        roomImageService.deleteImages(deletedPaths);
 
-            Room savedRoom = roomRepository.save(updatedRoom);
-            System.out.println("Room updated with ID: " + savedRoom.getRoomId());
-            return savedRoom;
+        return roomRepository.save(updatedRoom);
+    }
+
+    // Loads the room under a row lock held until the caller's transaction ends. The room is
+    // refreshed with the lock rather than just locked: with open-in-view it may already be in
+    // the persistence context holding a status read before the lock was taken.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<Room> lockRoom(Long roomId) {
+        Room room = entityManager.find(Room.class, roomId);
+        if (room == null) {
+            return Optional.empty();
         }
-        return null;
+        entityManager.refresh(room, LockModeType.PESSIMISTIC_WRITE);
+        return Optional.of(room);
+    }
+
+    // Changes the status under the room lock and publishes the change in the same transaction,
+    // so concurrent changes apply their owner_stats deltas one after the other.
+    @Transactional
+    public Optional<Room> updateRoomStatus(Long roomId, String newStatus) {
+        Optional<Room> room = lockRoom(roomId);
+        room.ifPresent(r -> {
+            String oldStatus = r.getStatus();
+            r.setStatus(newStatus);
+            eventPublisher.publishEvent(new RoomStatusChangedEvent(
+                    r.getOwner() != null ? r.getOwner().getOwnerId() : null, oldStatus, newStatus));
+        });
+        return room;
     }
 
     @Transactional
@@ -269,32 +255,10 @@ private RentedUnitRepository rentedUnitRepository;
         try {
             Optional<Room> room = roomRepository.findById(roomId);
             if (room.isPresent()) {
-                List<String> imagePaths = room.get().getImagePaths();
-                for (String imagePath : imagePaths) {
-                    String fileName = imagePath.substring(imagePath.lastIndexOf("/") + 1);
-                    System.out.println("Deleting image from Supabase: " + fileName);
-                    try {
-                        HttpHeaders headers = new HttpHeaders();
-                        headers.setBearerAuth(supabaseKey);
-                        HttpEntity<String> requestEntity = new HttpEntity<>(headers);
-                        String deleteUrl = String.format("%s/%s/%s", storageUrl, bucketName, fileName);
-                        ResponseEntity<String> response = restTemplate.exchange(
-                                deleteUrl,
-                                HttpMethod.DELETE,
-                                requestEntity,
-                                String.class
-                        );
-
-                        if (response.getStatusCode().is2xxSuccessful()) {
-                            System.out.println("Image deleted successfully: " + fileName);
-                        } else {
-                            System.err.println("Failed to delete image from Supabase: " + response.getStatusCode());
-                        }
-                    } catch (Exception e) {
-                        System.err.println("Failed to delete image from Supabase: " + e.getMessage());
-                    }
-                }
+                roomImageService.deleteImages(RoomImageService.storagePaths(room.get().getImages()));
                 roomRepository.deleteById(roomId);
+                Long ownerId = room.get().getOwner() != null ? room.get().getOwner().getOwnerId() : null;
+                eventPublisher.publishEvent(new RoomStatusChangedEvent(ownerId, room.get().getStatus(), null));
                 return true;
             }
             return false;
@@ -320,14 +284,24 @@ private RentedUnitRepository rentedUnitRepository;
    @Transactional
 public List<Room> getUnavailableRoomsByOwnerId(Long ownerId) {
     List<Room> rooms = roomRepository.findByOwnerOwnerIdAndStatus(ownerId, "rented");
+    if (rooms.isEmpty()) {
+        return rooms;
+    }
+
+    // Load the renters for all rooms at once, keeping the first rented unit per room
+    List<Long> roomIds = rooms.stream().map(Room::getRoomId).toList();
+    Map<Long, Renter> rentersByRoomId = new HashMap<>();
+    for (RentedUnit unit : rentedUnitRepository.findWithRenterByRoomIds(roomIds)) {
+        rentersByRoomId.putIfAbsent(unit.getRoomId(), unit.getRenter());
+    }
+
     for (Room room : rooms) {
         if (room.getOwner() != null) {
             room.setOwnerId(room.getOwner().getOwnerId());
             room.setOwnerName(room.getOwner().getUsername());
         }
         // Populate renter from RentedUnit
-        Optional<RentedUnit> rentedUnit = rentedUnitRepository.findByRoomRoomId(room.getRoomId()).stream().findFirst();
-        rentedUnit.ifPresent(unit -> room.setRenter(unit.getRenter()));
+        room.setRenter(rentersByRoomId.get(room.getRoomId()));
     }
     return rooms;
 }
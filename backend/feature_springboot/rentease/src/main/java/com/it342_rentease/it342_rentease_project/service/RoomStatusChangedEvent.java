@@ -0,0 +1,5 @@
+package com.it342_rentease.it342_rentease_project.service;
+
+// Published when a room is created (oldStatus null), deleted (newStatus null) or changes status
+public record RoomStatusChangedEvent(Long ownerId, String oldStatus, String newStatus) {
+}
@@ -0,0 +1,33 @@
+package com.it342_rentease.it342_rentease_project.service;
+
+import com.it342_rentease.it342_rentease_project.model.StorageDeletion;
+import com.it342_rentease.it342_rentease_project.repository.StorageDeletionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class StorageDeletionService {
+
+    @Autowired
+    private StorageDeletionRepository storageDeletionRepository;
+
+    // Queues storage objects for deletion. Joins the caller's transaction when there is one,
+    // so the rows only become visible once the room no longer references the objects.
+    @Transactional
+    public void enqueue(List<String> imagePaths) {
+        List<StorageDeletion> deletions = new ArrayList<>();
+        for (String imagePath : imagePaths) {
+            if (imagePath != null && !imagePath.isEmpty()) {
+                deletions.add(new StorageDeletion(imagePath));
+            }
+        }
+        if (!deletions.isEmpty()) {
+            storageDeletionRepository.saveAll(deletions);
+            System.out.println("Queued " + deletions.size() + " storage objects for deletion");
+        }
+    }
+}
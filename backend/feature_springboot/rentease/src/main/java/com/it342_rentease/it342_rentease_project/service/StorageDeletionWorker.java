@@ -0,0 +1,83 @@
+package com.it342_rentease.it342_rentease_project.service;
+
+import com.it342_rentease.it342_rentease_project.model.StorageDeletion;
+import com.it342_rentease.it342_rentease_project.repository.StorageDeletionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Drains the storage_deletions outbox in batches using the bucket's bulk-remove API.
+// Failed batches are retried with exponential backoff; rows are never dropped.
+@Component
+public class StorageDeletionWorker {
+
+    @Autowired
+    private StorageDeletionRepository storageDeletionRepository;
+
+    @Autowired
+    private StorageService storageService;
+
+    @Value("${storage.deletion.batch-size:100}")
+    private int batchSize;
+
+    @Value("${storage.deletion.initial-backoff-ms:30000}")
+    private long initialBackoffMs;
+
+    @Value("${storage.deletion.max-backoff-ms:3600000}")
+    private long maxBackoffMs;
+
+    @Scheduled(fixedDelayString = "${storage.deletion.interval-ms:15000}")
+    public void processDueDeletions() {
+        List<StorageDeletion> batch;
+        do {
+            batch = storageDeletionRepository.findByNextAttemptAtLessThanEqualOrderByDeletionIdAsc(
+                    LocalDateTime.now(), PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                return;
+            }
+            if (!processBatch(batch)) {
+                // The bucket is failing; leave the rest for the next run
+                return;
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    private boolean processBatch(List<StorageDeletion> batch) {
+        List<String> imagePaths = batch.stream().map(StorageDeletion::getObjectPath).toList();
+        try {
+            storageService.delete(imagePaths);
+            storageDeletionRepository.deleteAllInBatch(batch);
+            System.out.println("Deleted " + batch.size() + " storage objects");
+            return true;
+        } catch (Exception e) {
+            System.err.println("Failed to delete storage objects, will retry: " + e.getMessage());
+            LocalDateTime now = LocalDateTime.now();
+            for (StorageDeletion deletion : batch) {
+                deletion.setAttempts(deletion.getAttempts() + 1);
+                deletion.setNextAttemptAt(now.plus(backoff(deletion.getAttempts())));
+                deletion.setLastError(truncate(e.getMessage()));
+            }
+            storageDeletionRepository.saveAll(batch);
+            return false;
+        }
+    }
+
+    // initialBackoff * 2^(attempts - 1), capped at maxBackoff
+    private Duration backoff(int attempts) {
+        int exponent = Math.min(attempts - 1, 20);
+        return Duration.ofMillis(Math.min(maxBackoffMs, initialBackoffMs << exponent));
+    }
+
+    private String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1024 ? message.substring(0, 1024) : message;
+    }
+}
@@ -0,0 +1,38 @@
+package com.it342_rentease.it342_rentease_project.service;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+// Object storage for room images. Selected with storage.type: "supabase" (default) or "local".
+public interface StorageService {
+
+    // Streams the file into storage under objectName and returns its public URL
+    String upload(String objectName, MultipartFile file) throws IOException;
+
+    // Stores small generated content (e.g. image variants) and returns its public URL
+    String upload(String objectName, byte[] content, String contentType) throws IOException;
+
+    // Deletes the objects behind the given public URLs in one call; missing objects are ignored
+    void delete(List<String> publicUrls) throws IOException;
+
+    // Object name (key in the bucket) behind a public URL
+    default String objectName(String publicUrl) {
+        return publicUrl.substring(publicUrl.lastIndexOf("/") + 1);
+    }
+
+    String publicUrl(String objectName);
+
+    // True when objects live on local disk and are served by this application
+    default boolean isLocal() {
+        return false;
+    }
+
+    // The file holding the object, for local backends; empty when it does not exist
+    default Optional<Path> localFile(String objectName) {
+        return Optional.empty();
+    }
+}
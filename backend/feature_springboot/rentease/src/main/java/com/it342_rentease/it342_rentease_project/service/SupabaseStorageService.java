@@ -0,0 +1,142 @@
+package com.it342_rentease.it342_rentease_project.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+@Service
+@ConditionalOnProperty(name = "storage.type", havingValue = "supabase", matchIfMissing = true)
+public class SupabaseStorageService implements StorageService {
+
+    private static final int UPLOAD_BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    private final String supabaseKey;
+    private final String bucketName;
+    private final String storageUrl;
+
+    public SupabaseStorageService(
+            @Value("${supabase.key}") String supabaseKey,
+            @Value("${supabase.bucket}") String bucketName,
+            @Value("${supabase.storage-url}") String storageUrl
+    ) {
+        this.supabaseKey = supabaseKey;
+        this.bucketName = bucketName;
+        this.storageUrl = storageUrl;
+    }
+
+    @Override
+    public String upload(String objectName, MultipartFile file) throws IOException {
+        HttpStatusCode status = restTemplate.execute(
+                uploadUrl(objectName),
+                HttpMethod.POST,
+                request -> writeFile(request, file),
+                ClientHttpResponse::getStatusCode
+        );
+
+        if (status == null || !status.is2xxSuccessful()) {
+            throw new IOException("Failed to upload image to Supabase: " + status);
+        }
+        return publicUrl(objectName);
+    }
+
+    @Override
+    public String upload(String objectName, byte[] content, String contentType) throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(supabaseKey);
+        headers.set("Content-Type", contentType);
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                uploadUrl(objectName),
+                HttpMethod.POST,
+                new HttpEntity<>(content, headers),
+                String.class
+        );
+
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new IOException("Failed to upload image to Supabase: " + response.getStatusCode());
+        }
+        return publicUrl(objectName);
+    }
+
+    // Single call to the bucket's bulk-remove endpoint
+    @Override
+    public void delete(List<String> publicUrls) throws IOException {
+        List<String> objectNames = publicUrls.stream().map(this::objectName).toList();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBearerAuth(supabaseKey);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<Map<String, Object>> requestEntity = new HttpEntity<>(Map.of("prefixes", objectNames), headers);
+
+        String removeUrl = String.format("%s/%s", storageUrl, bucketName);
+        ResponseEntity<String> response = restTemplate.exchange(
+                removeUrl,
+                HttpMethod.DELETE,
+                requestEntity,
+                String.class
+        );
+
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new IOException("Failed to delete images from Supabase: " + response.getStatusCode());
+        }
+    }
+
+    @Override
+    public String publicUrl(String objectName) {
+        return String.format("%s/public/%s/%s", storageUrl, bucketName, objectName);
+    }
+
+    private String uploadUrl(String objectName) {
+        return String.format("%s/%s/%s", storageUrl, bucketName, objectName);
+    }
+
+    // Streams the multipart file to the request body through a fixed-size buffer instead of
+    // loading it with getBytes(). A known Content-Length lets the connection stream in
+    // fixed-length mode, so memory per upload stays constant regardless of image size.
+    private void writeFile(ClientHttpRequest request, MultipartFile file) throws IOException {
+        HttpHeaders headers = request.getHeaders();
+        headers.setBearerAuth(supabaseKey);
+        headers.set("Content-Type", file.getContentType() != null
+                ? file.getContentType()
+                : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        headers.setContentLength(file.getSize());
+
+        if (request instanceof StreamingHttpOutputMessage streamingRequest) {
+            streamingRequest.setBody(body -> copyFile(file, body));
+        } else {
+            copyFile(file, request.getBody());
+        }
+    }
+
+    private void copyFile(MultipartFile file, OutputStream body) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            byte[] buffer = new byte[UPLOAD_BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                body.write(buffer, 0, read);
+            }
+            body.flush();
+        }
+    }
+}
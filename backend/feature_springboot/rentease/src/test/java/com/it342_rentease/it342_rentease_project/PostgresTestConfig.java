@@ -0,0 +1,39 @@
+package com.it342_rentease.it342_rentease_project;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+// Real PostgreSQL for tests of native SQL (upserts, ON CONFLICT, DO blocks) that H2 cannot run.
+// Use with @AutoConfigureTestDatabase(replace = NONE). One server is shared by all test classes.
+@TestConfiguration(proxyBeanMethods = false)
+public class PostgresTestConfig {
+
+    private static EmbeddedPostgres postgres;
+
+    @Bean
+    public DataSource dataSource() {
+        return server().getPostgresDatabase();
+    }
+
+    private static synchronized EmbeddedPostgres server() {
+        if (postgres == null) {
+            try {
+                postgres = EmbeddedPostgres.start();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not start embedded PostgreSQL", e);
+            }
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException ignored) {
+                }
+            }));
+        }
+        return postgres;
+    }
+}
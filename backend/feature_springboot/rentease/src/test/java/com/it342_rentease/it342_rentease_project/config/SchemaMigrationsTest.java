@@ -0,0 +1,63 @@
+package com.it342_rentease.it342_rentease_project.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.it342_rentease.it342_rentease_project.PostgresTestConfig;
+import com.it342_rentease.it342_rentease_project.model.Owner;
+import com.it342_rentease.it342_rentease_project.model.Room;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PostgresTestConfig.class, SchemaMigrations.class})
+class SchemaMigrationsTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SchemaMigrations schemaMigrations;
+
+    @Test
+    void dedupesPaymentsBeforeAddingIntentConstraint() throws Exception {
+        Owner owner = new Owner();
+        owner.setUsername("owner");
+        owner.setPassword("secret");
+        entityManager.persist(owner);
+        Room room = new Room();
+        room.setOwner(owner);
+        room.setUnitName("Unit");
+        room.setNumberOfRooms(1);
+        entityManager.persist(room);
+        entityManager.flush();
+
+        // A database from before the constraint, where concurrent saves left duplicates
+        jdbcTemplate.execute("alter table payment drop constraint uk_payment_intent_id");
+        String insert = "insert into payment (payment_intent_id, amount, status, payment_method, room_id) values (?, 100, ?, 'gcash', ?)";
+        jdbcTemplate.update(insert, "pi_1", "Pending", room.getRoomId());
+        jdbcTemplate.update(insert, "pi_1", "Paid", room.getRoomId());
+        jdbcTemplate.update(insert, "pi_1", "Pending", room.getRoomId());
+        jdbcTemplate.update(insert, "pi_2", "Pending", room.getRoomId());
+        jdbcTemplate.update(insert, null, "Pending", room.getRoomId());
+        jdbcTemplate.update(insert, null, "Pending", room.getRoomId());
+
+        schemaMigrations.run(null);
+        schemaMigrations.run(null);
+
+        assertThat(jdbcTemplate.queryForList("select status from payment where payment_intent_id = 'pi_1'", String.class))
+                .containsExactly("Paid");
+        assertThat(jdbcTemplate.queryForObject("select count(*) from payment", Long.class)).isEqualTo(4);
+        assertThat(jdbcTemplate.queryForObject(
+                "select count(*) from pg_constraint where conname = 'uk_payment_intent_id'", Long.class)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,58 @@
+package com.it342_rentease.it342_rentease_project.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.it342_rentease.it342_rentease_project.model.Owner;
+import com.it342_rentease.it342_rentease_project.model.Renter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.List;
+
+@DataJpaTest
+class OwnerRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private OwnerRepository ownerRepository;
+
+    @BeforeEach
+    void setUp() {
+        Owner owner = new Owner();
+        owner.setUsername("owner");
+        owner.setPassword("owner-hash");
+        entityManager.persist(owner);
+
+        Renter renter = new Renter();
+        renter.setEmail("renter@example.com");
+        renter.setName("Renter");
+        renter.setPassword("renter-hash");
+        entityManager.persist(renter);
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findPrincipalsResolvesOwnersAndRenters() {
+        List<PrincipalRecord> owners = ownerRepository.findPrincipals("owner");
+        List<PrincipalRecord> renters = ownerRepository.findPrincipals("renter@example.com");
+
+        assertThat(owners).singleElement().satisfies(record -> {
+            assertThat(record.getType()).isEqualTo("owner");
+            assertThat(record.getPassword()).isEqualTo("owner-hash");
+        });
+        assertThat(renters).singleElement().satisfies(record -> {
+            assertThat(record.getType()).isEqualTo("renter");
+            assertThat(record.getName()).isEqualTo("Renter");
+            assertThat(record.getId()).isNotNull();
+        });
+        assertThat(ownerRepository.findPrincipals("nobody")).isEmpty();
+    }
+}
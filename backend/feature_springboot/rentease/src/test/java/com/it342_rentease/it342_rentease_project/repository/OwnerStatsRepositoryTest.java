@@ -0,0 +1,108 @@
+package com.it342_rentease.it342_rentease_project.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.it342_rentease.it342_rentease_project.PostgresTestConfig;
+import com.it342_rentease.it342_rentease_project.model.Owner;
+import com.it342_rentease.it342_rentease_project.model.OwnerStats;
+import com.it342_rentease.it342_rentease_project.model.Payment;
+import com.it342_rentease.it342_rentease_project.model.Room;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+
+// rebuild and refreshRevenue are PostgreSQL-only native SQL, so these run against an embedded PostgreSQL.
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(PostgresTestConfig.class)
+class OwnerStatsRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private OwnerStatsRepository ownerStatsRepository;
+
+    private Owner owner;
+    private Room rentedRoom;
+
+    @BeforeEach
+    void setUp() {
+        owner = persistOwner("owner");
+        persistRoom(owner, "available");
+        persistRoom(owner, "available");
+        rentedRoom = persistRoom(owner, "rented");
+        persistPayment(rentedRoom, "pi_1", 1000f, "Paid");
+        persistPayment(rentedRoom, "pi_2", 500f, "Pending");
+        entityManager.flush();
+    }
+
+    @Test
+    void rebuildCreatesRowFromSourceTables() {
+        assertThat(ownerStatsRepository.rebuild(owner.getOwnerId())).isEqualTo(1);
+        entityManager.clear();
+
+        OwnerStats stats = ownerStatsRepository.findById(owner.getOwnerId()).orElseThrow();
+        assertThat(stats.getTotalRooms()).isEqualTo(3);
+        assertThat(stats.getAvailableRooms()).isEqualTo(2);
+        assertThat(stats.getRentedRooms()).isEqualTo(1);
+        assertThat(stats.getRevenue()).isEqualTo(1000.0);
+    }
+
+    @Test
+    void rebuildAllOnlyRewritesDriftedRows() {
+        Owner other = persistOwner("other");
+        persistRoom(other, "available");
+        entityManager.flush();
+        ownerStatsRepository.rebuild(null);
+
+        assertThat(ownerStatsRepository.rebuild(null)).isZero();
+
+        ownerStatsRepository.applyRoomDelta(owner.getOwnerId(), 5, 0, 0);
+        assertThat(ownerStatsRepository.rebuild(null)).isEqualTo(1);
+        entityManager.clear();
+        assertThat(ownerStatsRepository.findById(owner.getOwnerId()).orElseThrow().getTotalRooms()).isEqualTo(3);
+    }
+
+    @Test
+    void refreshRevenueResumsPaidPayments() {
+        assertThat(ownerStatsRepository.refreshRevenue(owner.getOwnerId())).isZero();
+
+        ownerStatsRepository.rebuild(owner.getOwnerId());
+        persistPayment(rentedRoom, "pi_3", 250f, "Paid");
+        entityManager.flush();
+
+        assertThat(ownerStatsRepository.refreshRevenue(owner.getOwnerId())).isEqualTo(1);
+        assertThat(ownerStatsRepository.refreshRevenue(owner.getOwnerId())).isEqualTo(1);
+        entityManager.clear();
+        assertThat(ownerStatsRepository.findById(owner.getOwnerId()).orElseThrow().getRevenue()).isEqualTo(1250.0);
+    }
+
+    private Owner persistOwner(String username) {
+        Owner owner = new Owner();
+        owner.setUsername(username);
+        owner.setPassword("secret");
+        return entityManager.persist(owner);
+    }
+
+    private Room persistRoom(Owner owner, String status) {
+        Room room = new Room();
+        room.setOwner(owner);
+        room.setUnitName("Unit");
+        room.setNumberOfRooms(1);
+        room.setStatus(status);
+        return entityManager.persist(room);
+    }
+
+    private void persistPayment(Room room, String paymentIntentId, float amount, String status) {
+        entityManager.persist(new Payment(amount, status, "gcash", paymentIntentId,
+                "Paid".equals(status) ? LocalDate.now() : null, room));
+    }
+}
@@ -0,0 +1,100 @@
+package com.it342_rentease.it342_rentease_project.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.it342_rentease.it342_rentease_project.PostgresTestConfig;
+import com.it342_rentease.it342_rentease_project.model.Owner;
+import com.it342_rentease.it342_rentease_project.model.Payment;
+import com.it342_rentease.it342_rentease_project.model.Room;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// The upserts are PostgreSQL-only native SQL, so these run against an embedded PostgreSQL.
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(PostgresTestConfig.class)
+class PaymentRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    private Room room;
+
+    @BeforeEach
+    void setUp() {
+        Owner owner = new Owner();
+        owner.setUsername("owner");
+        owner.setPassword("secret");
+        entityManager.persist(owner);
+        room = new Room();
+        room.setOwner(owner);
+        room.setUnitName("Unit");
+        room.setNumberOfRooms(1);
+        entityManager.persist(room);
+        entityManager.flush();
+    }
+
+    @Test
+    void upsertInsertsThenUpdatesOneRow() {
+        Payment inserted = paymentRepository.upsert("pi_1", 100f, "Pending", "gcash", null, room.getRoomId());
+        entityManager.clear();
+        Payment updated = paymentRepository.upsert("pi_1", 150f, "Paid", "card", LocalDate.now(), room.getRoomId());
+
+        assertThat(updated.getPaymentId()).isEqualTo(inserted.getPaymentId());
+        assertThat(updated.getStatus()).isEqualTo("Paid");
+        assertThat(updated.getAmount()).isEqualTo(150f);
+        assertThat(paymentRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void upsertNeverDowngradesPaid() {
+        paymentRepository.upsert("pi_1", 150f, "Paid", "card", LocalDate.now(), room.getRoomId());
+        entityManager.clear();
+        Payment stale = paymentRepository.upsert("pi_1", 100f, "Pending", "gcash", null, room.getRoomId());
+
+        assertThat(stale.getStatus()).isEqualTo("Paid");
+        assertThat(stale.getAmount()).isEqualTo(150f);
+        assertThat(stale.getPaidDate()).isNotNull();
+    }
+
+    @Test
+    void insertPendingIfAbsentKeepsExistingRow() {
+        Payment paid = paymentRepository.upsert("pi_1", 150f, "Paid", "card", LocalDate.now(), room.getRoomId());
+        entityManager.clear();
+        Payment existing = paymentRepository.insertPendingIfAbsent("pi_1", room.getRoomId());
+        Payment created = paymentRepository.insertPendingIfAbsent("pi_2", room.getRoomId());
+
+        assertThat(existing.getPaymentId()).isEqualTo(paid.getPaymentId());
+        assertThat(existing.getStatus()).isEqualTo("Paid");
+        assertThat(created.getStatus()).isEqualTo("Pending");
+        assertThat(paymentRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void pendingPageSkipsPaymentsOutOfChecks() {
+        Payment checked = paymentRepository.insertPendingIfAbsent("pi_1", room.getRoomId());
+        Payment fresh = paymentRepository.insertPendingIfAbsent("pi_2", room.getRoomId());
+        paymentRepository.recordReconcileCheck(checked.getPaymentId(), LocalDateTime.now());
+        paymentRepository.recordReconcileCheck(checked.getPaymentId(), LocalDateTime.now());
+        entityManager.clear();
+
+        assertThat(paymentRepository.findPageByStatus("Pending", 0L, 2, PageRequest.of(0, 10)))
+                .extracting(Payment::getPaymentId)
+                .containsExactly(fresh.getPaymentId());
+        assertThat(paymentRepository.findById(checked.getPaymentId()).orElseThrow().getLastReconciledAt()).isNotNull();
+    }
+}
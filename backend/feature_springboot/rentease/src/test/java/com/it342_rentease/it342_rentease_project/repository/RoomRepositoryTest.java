@@ -0,0 +1,120 @@
+package com.it342_rentease.it342_rentease_project.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.it342_rentease.it342_rentease_project.model.Owner;
+import com.it342_rentease.it342_rentease_project.model.Room;
+import com.it342_rentease.it342_rentease_project.model.RoomImage;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class RoomRepositoryTest {
+
+    private static final int ROOM_COUNT = 10;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    private Statistics statistics;
+    private Long ownerId;
+
+    @BeforeEach
+    void setUp() {
+        Owner owner = new Owner();
+        owner.setUsername("owner");
+        owner.setPassword("secret");
+        entityManager.persist(owner);
+        ownerId = owner.getOwnerId();
+
+        for (int i = 0; i < ROOM_COUNT; i++) {
+            Room room = new Room();
+            room.setOwner(owner);
+            room.setUnitName("Unit " + i);
+            room.setNumberOfRooms(1 + i % 3);
+            room.setRentalFee(1000 + i * 500);
+            room.setCity(i % 2 == 0 ? "Cebu" : "Manila");
+            room.setImages(new ArrayList<>(List.of(
+                    new RoomImage("a_" + i + ".jpg", "medium_a_" + i + ".jpg", "thumb_a_" + i + ".jpg"),
+                    new RoomImage("b_" + i + ".jpg", null, null))));
+            entityManager.persist(room);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAllWithOwnerAndImagesUsesSingleStatement() {
+        List<Room> rooms = roomRepository.findAllWithOwnerAndImages();
+        touch(rooms);
+
+        assertThat(rooms).hasSize(ROOM_COUNT);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findByOwnerOwnerIdUsesSingleStatement() {
+        List<Room> rooms = roomRepository.findByOwnerOwnerId(ownerId);
+        touch(rooms);
+
+        assertThat(rooms).hasSize(ROOM_COUNT);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void findByIdWithOwnerAndImagesUsesSingleStatement() {
+        Long roomId = roomRepository.findAll().get(0).getRoomId();
+        entityManager.clear();
+        statistics.clear();
+
+        Room room = roomRepository.findByIdWithOwnerAndImages(roomId).orElseThrow();
+        touch(List.of(room));
+
+        assertThat(room.getImagePaths()).hasSize(2);
+        assertThat(room.getImageVariants()).hasSize(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void searchPageUsesBoundedStatements() {
+        Page<Room> page = roomRepository.findAll(
+                RoomSpecifications.cityEquals("cebu"), PageRequest.of(0, 3, Sort.by("rentalFee")));
+        touch(page.getContent());
+
+        assertThat(page.getTotalElements()).isEqualTo(ROOM_COUNT / 2);
+        assertThat(page.getContent()).hasSize(3);
+        // page query + count query + one batched imagePaths load
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+    }
+
+    // Touch everything the service and JSON serialization read
+    private void touch(List<Room> rooms) {
+        for (Room room : rooms) {
+            room.getOwner().getUsername();
+            room.getImagePaths().size();
+            room.getImageVariants().size();
+        }
+    }
+}
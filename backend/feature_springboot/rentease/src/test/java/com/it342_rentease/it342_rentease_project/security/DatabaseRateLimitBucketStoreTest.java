@@ -0,0 +1,95 @@
+package com.it342_rentease.it342_rentease_project.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.it342_rentease.it342_rentease_project.PostgresTestConfig;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// The consume upsert is PostgreSQL-only native SQL, so these run against an embedded PostgreSQL.
+// Not transactional: now() is fixed for a transaction, so every consume must commit on its own
+// for the bucket to refill between calls. Each test uses its own bucket key.
+@DataJpaTest(properties = "rate-limit.store=database")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PostgresTestConfig.class, DatabaseRateLimitBucketStore.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class DatabaseRateLimitBucketStoreTest {
+
+    @Autowired
+    private DatabaseRateLimitBucketStore store;
+
+    @Test
+    void deniesOnceTheBucketIsEmpty() {
+        String key = newKey();
+
+        assertThat(store.tryConsume(key, 2, 0.01)).isZero();
+        assertThat(store.tryConsume(key, 2, 0.01)).isZero();
+        // About 100s until the next token at 0.01 per second
+        assertThat(store.tryConsume(key, 2, 0.01)).isBetween(90_000L, 100_000L);
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        String key = newKey();
+
+        assertThat(store.tryConsume(key, 1, 5)).isZero();
+        long waitMs = store.tryConsume(key, 1, 5);
+        assertThat(waitMs).isBetween(1L, 200L);
+
+        Thread.sleep(waitMs + 50);
+        assertThat(store.tryConsume(key, 1, 5)).isZero();
+    }
+
+    @Test
+    void concurrentConsumersShareOneBucket() throws Exception {
+        String key = newKey();
+        int threads = 8;
+        int attemptsPerThread = 5;
+        AtomicInteger allowed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int attempt = 0; attempt < attemptsPerThread; attempt++) {
+                        if (store.tryConsume(key, 10, 0.001) == 0) {
+                            allowed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // 40 attempts against a bucket of 10 that barely refills: exactly 10 get through
+        assertThat(allowed.get()).isEqualTo(10);
+    }
+
+    private static String newKey() {
+        return "test:" + UUID.randomUUID();
+    }
+}
@@ -0,0 +1,79 @@
+package com.it342_rentease.it342_rentease_project.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// Token handling cost of one GET /api/renters/current request.
+//
+// Run with:
+//   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+//   java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+//       com.it342_rentease.it342_rentease_project.security.JwtAuthBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthBenchmark {
+
+    // Base64 like jwt.secret; HS256 needs at least 256 bits
+    static final String SECRET =
+            "c2VjcmV0LWJlbmNobWFyay1rZXktZm9yLWp3dC1zaWduaW5nLW9ubHktbm90LWZvci1wcm9kdWN0aW9uLXVzZSE=";
+
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils(SECRET, 3_600_000L);
+        token = jwtUtils.generateTokenForRenter("renter@example.com", 42L, "Renter");
+    }
+
+    // Previous flow: JwtFilter parsed in extractUsername and again in validateToken, then
+    // the controller parsed for extractUsername, extractRenterId and extractRenterName
+    @Benchmark
+    public Object parsePerAccess() {
+        String username = parse().getSubject();
+        boolean valid = parse() != null;
+        String email = parse().getSubject();
+        Long renterId = parse().get("renterId", Long.class);
+        String renterName = parse().get("renterName", String.class);
+        return valid ? username + email + renterId + renterName : null;
+    }
+
+    // Current flow: JwtFilter verifies once and the controller reads JwtPrincipal
+    @Benchmark
+    public Object parseOnce() {
+        JwtPrincipal principal = new JwtPrincipal(jwtUtils.parseClaims(token));
+        return principal.getUsername() + principal.getUsername() + principal.getRenterId() + principal.getRenterName();
+    }
+
+    // The old per-call parser: key decoded and parser built on every parse
+    private Claims parse() {
+        JwtParser parser = Jwts.parser().verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET))).build();
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtAuthBenchmark.class.getSimpleName()).build()).run();
+    }
+}
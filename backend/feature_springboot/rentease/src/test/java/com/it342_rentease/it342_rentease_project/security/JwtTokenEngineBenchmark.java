@@ -0,0 +1,68 @@
+package com.it342_rentease.it342_rentease_project.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// Sign and verify throughput of JwtUtils with all threads sharing one instance, against
+// building the key and parser per call as JwtUtils did before.
+//
+// Run like JwtAuthBenchmark, with this class name; -t overrides the thread count.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class JwtTokenEngineBenchmark {
+
+    private JwtUtils jwtUtils;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtils = new JwtUtils(JwtAuthBenchmark.SECRET, 3_600_000L);
+        token = jwtUtils.generateTokenForRenter("renter@example.com", 42L, "Renter");
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtUtils.generateToken("owner");
+    }
+
+    @Benchmark
+    public Claims verify() {
+        return jwtUtils.parseClaims(token);
+    }
+
+    @Benchmark
+    public Claims verifyWithPerCallParser() {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(JwtAuthBenchmark.SECRET)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(JwtTokenEngineBenchmark.class.getSimpleName()).build()).run();
+    }
+}
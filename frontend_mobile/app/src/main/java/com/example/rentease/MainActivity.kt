@@ -24,12 +24,14 @@ import androidx.navigation.NavHostController
 import androidx.navigation.compose.NavHost
 import androidx.navigation.compose.composable
 import androidx.navigation.compose.rememberNavController
+import com.example.rentease.network.RetrofitInstance
 import com.example.rentease.ui.screens.*
 import com.example.rentease.ui.theme.RentEaseTheme
 
 class MainActivity : ComponentActivity() {
     override fun onCreate(savedInstanceState: Bundle?) {
         super.onCreate(savedInstanceState)
+        RetrofitInstance.init(this)
         enableEdgeToEdge()
         setContent {
             RentEaseTheme {
@@ -6,6 +6,7 @@ import com.example.rentease.model.RentedUnitRequest
 import com.example.rentease.model.RentedUnitNotificationDTO
 import com.example.rentease.model.PaymentReminderDto
 import com.example.rentease.model.PaymentHistoryRequest
+import retrofit2.Call
 import retrofit2.Response
 import retrofit2.http.*
 
@@ -15,6 +16,12 @@ interface ApiService {
         @Body request: LoginRequest
     ): Response<AuthResponse>
 
+    // Blocking on purpose: called from TokenAuthenticator on OkHttp's thread
+    @POST("/auth/refresh")
+    fun refresh(
+        @Body body: Map<String, String>
+    ): Call<AuthResponse>
+
     @POST("/api/renters/register") // ✅ match backend controller endpoint
     suspend fun register(
         @Body request: RegisterRequest
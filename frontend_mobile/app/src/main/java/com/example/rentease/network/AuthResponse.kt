@@ -1,5 +1,8 @@
 package com.example.rentease.network
 
 data class AuthResponse(
-    val jwt: String
-)
\ No newline at end of file
+    val jwt: String?,
+    // /auth/refresh returns the new access token as "token"
+    val token: String? = null,
+    val refreshToken: String? = null
+)
@@ -1,5 +1,7 @@
 package com.example.rentease.network
 
+import android.content.Context
+import okhttp3.OkHttpClient
 import retrofit2.Retrofit
 import retrofit2.converter.gson.GsonConverterFactory
 
@@ -7,11 +9,31 @@ object RetrofitInstance {
 
     private const val BASE_URL = "http://10.0.2.2:8080/" // Use "http://10.0.2.2:8080/" or "https://it342-rentease.onrender.com" if you're on Android Emulator
 
+    private lateinit var appContext: Context
+
+    // Called from MainActivity so the authenticator can read and renew the stored tokens
+    fun init(context: Context) {
+        appContext = context.applicationContext
+    }
+
+    // Without the authenticator, so a failed refresh is never itself refreshed
+    private val refreshApi: ApiService by lazy {
+        Retrofit.Builder()
+            .baseUrl(BASE_URL)
+            .addConverterFactory(GsonConverterFactory.create())
+            .build()
+            .create(ApiService::class.java)
+    }
+
     val api: ApiService by lazy {
+        val client = OkHttpClient.Builder()
+            .authenticator(TokenAuthenticator(appContext) { refreshApi })
+            .build()
         Retrofit.Builder()
             .baseUrl(BASE_URL)
+            .client(client)
             .addConverterFactory(GsonConverterFactory.create())
             .build()
             .create(ApiService::class.java)
     }
-}
\ No newline at end of file
+}
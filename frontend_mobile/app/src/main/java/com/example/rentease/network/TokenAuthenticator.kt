@@ -0,0 +1,48 @@
+package com.example.rentease.network
+
+import android.content.Context
+import okhttp3.Authenticator
+import okhttp3.Request
+import okhttp3.Response
+import okhttp3.Route
+
+// Access tokens are short-lived. On a 401 this trades the stored refresh token for a new
+// pair through POST /auth/refresh and retries the request once with the new access token.
+class TokenAuthenticator(
+    private val context: Context,
+    private val refreshApi: () -> ApiService
+) : Authenticator {
+
+    @Synchronized
+    override fun authenticate(route: Route?, response: Response): Request? {
+        val sent = response.request().header("Authorization") ?: return null
+        if (response.priorResponse() != null) {
+            return null
+        }
+        val prefs = context.getSharedPreferences("RentEasePrefs", Context.MODE_PRIVATE)
+
+        // Another request may already have renewed the token this one was sent with
+        val stored = prefs.getString("renterToken", null)
+        if (stored != null && "Bearer $stored" != sent) {
+            return response.request().newBuilder().header("Authorization", "Bearer $stored").build()
+        }
+
+        val refreshToken = prefs.getString("renterRefreshToken", null) ?: return null
+        val renewed = try {
+            refreshApi().refresh(mapOf("refreshToken" to refreshToken)).execute()
+        } catch (e: Exception) {
+            return null
+        }
+        val body = renewed.body()
+        if (!renewed.isSuccessful || body?.token == null || body.refreshToken == null) {
+            // The refresh token is spent or expired, so the renter has to log in again
+            prefs.edit().remove("renterToken").remove("renterRefreshToken").apply()
+            return null
+        }
+        prefs.edit()
+            .putString("renterToken", body.token)
+            .putString("renterRefreshToken", body.refreshToken)
+            .apply()
+        return response.request().newBuilder().header("Authorization", "Bearer ${body.token}").build()
+    }
+}
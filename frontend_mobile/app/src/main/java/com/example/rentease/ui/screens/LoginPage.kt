@@ -67,6 +67,7 @@ fun LoginPage(
                         val prefs = context.getSharedPreferences("RentEasePrefs", Context.MODE_PRIVATE)
                         prefs.edit {
                             putString("renterToken", it)
+                            putString("renterRefreshToken", response.body()?.refreshToken)
                         }
 
                         // Fetch current user to get renterId
@@ -614,6 +614,10 @@ fun UserPage(
                                 context.getSharedPreferences("auth", Context.MODE_PRIVATE).edit {
                                     remove("jwt_token")
                                 }
+                                context.getSharedPreferences("RentEasePrefs", Context.MODE_PRIVATE).edit {
+                                    remove("renterToken")
+                                    remove("renterRefreshToken")
+                                }
                                 onLogOutClick()
                             },
                             modifier = Modifier
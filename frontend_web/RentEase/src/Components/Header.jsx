@@ -68,7 +68,14 @@ function Header() {
           },
         }
       )
-      .then(() => {
+      .then((response) => {
+        // A username or password change revokes the old tokens and returns new ones
+        if (response.data?.token) {
+          Cookies.set("token", response.data.token, { expires: 7 });
+        }
+        if (response.data?.refreshToken) {
+          Cookies.set("refreshToken", response.data.refreshToken, { expires: 30 });
+        }
         alert("Profile updated successfully");
         setProfileModalOpen(false);
         setNewPassword("");
@@ -110,8 +110,9 @@ function LoginPage() {
         username,
         password,
       })
-      const { token } = response.data
+      const { token, refreshToken } = response.data
       Cookies.set("token", token, { expires: 7 })
+      Cookies.set("refreshToken", refreshToken, { expires: 30 })
 
       // Add success animation before navigation
       document.querySelector(".login-card").classList.add("success-animation")
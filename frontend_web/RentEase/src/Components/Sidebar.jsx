@@ -9,6 +9,7 @@ function Sidebar() {
 
   const handleLogout = () => {
     Cookies.remove("token");
+    Cookies.remove("refreshToken");
     navigate("/login");
   };
 
@@ -0,0 +1,113 @@
+import axios from "axios"
+import Cookies from "js-cookie"
+import { jwtDecode } from "jwt-decode"
+
+const API_BASE_URL = import.meta.env.VITE_API_BASE_URL || "http://localhost:8080"
+
+// Access tokens are short-lived. Each login keeps its access token and refresh token in a
+// pair of cookies, and the interceptors below renew the access token through POST /auth/refresh.
+const SESSIONS = {
+  owner: { tokenCookie: "token", refreshCookie: "refreshToken", tokenDays: 7 },
+  renter: { tokenCookie: "renterToken", refreshCookie: "renterRefreshToken", tokenDays: 1 },
+}
+
+// Renew this far ahead of expiry so a request is not sent with a token about to lapse
+const RENEW_BEFORE_MS = 30 * 1000
+
+// One refresh per session at a time; a refresh token only works once
+const pending = {}
+
+const bearerToken = (config) => {
+  const authorization = config.headers?.Authorization
+  return authorization?.startsWith("Bearer ") ? authorization.substring(7) : null
+}
+
+// Picks the cookie pair from the token's principal type claim
+const sessionFor = (token) => {
+  try {
+    return (token && SESSIONS[jwtDecode(token).type]) || null
+  } catch {
+    return null
+  }
+}
+
+const refresh = (session) => {
+  if (!pending[session.tokenCookie]) {
+    const refreshToken = Cookies.get(session.refreshCookie)
+    pending[session.tokenCookie] = (refreshToken
+      ? axios.post(`${API_BASE_URL}/auth/refresh`, { refreshToken }).then((response) => {
+          Cookies.set(session.tokenCookie, response.data.token, { expires: session.tokenDays })
+          Cookies.set(session.refreshCookie, response.data.refreshToken, { expires: 30 })
+          return response.data.token
+        })
+      : Promise.reject(new Error("No refresh token"))
+    )
+      .catch((error) => {
+        // The refresh token is gone or spent, so the user has to log in again
+        Cookies.remove(session.tokenCookie)
+        Cookies.remove(session.refreshCookie)
+        throw error
+      })
+      .finally(() => {
+        delete pending[session.tokenCookie]
+      })
+  }
+  return pending[session.tokenCookie]
+}
+
+const isExpiring = (token) => {
+  try {
+    const { exp } = jwtDecode(token)
+    return exp && exp * 1000 - Date.now() < RENEW_BEFORE_MS
+  } catch {
+    return false
+  }
+}
+
+export const setupAuthRefresh = () => {
+  axios.interceptors.request.use(async (config) => {
+    if (config.url?.endsWith("/auth/refresh")) return config
+    const token = bearerToken(config)
+    const session = sessionFor(token)
+    if (session && isExpiring(token)) {
+      const current = Cookies.get(session.tokenCookie)
+      if (current && current !== token && !isExpiring(current)) {
+        config.headers.Authorization = `Bearer ${current}`
+      } else if (Cookies.get(session.refreshCookie)) {
+        try {
+          config.headers.Authorization = `Bearer ${await refresh(session)}`
+        } catch {
+          // Send the request as is; the caller handles the 401
+        }
+      }
+    }
+    return config
+  })
+
+  axios.interceptors.response.use(undefined, async (error) => {
+    const config = error.config
+    if (error.response?.status !== 401 || !config || config._retried || config.url?.endsWith("/auth/refresh")) {
+      throw error
+    }
+    const sent = bearerToken(config)
+    const session = sessionFor(sent)
+    if (!session) {
+      throw error
+    }
+    // Another request may already have renewed the token this one was sent with
+    let token = Cookies.get(session.tokenCookie)
+    if (!token || token === sent) {
+      if (!Cookies.get(session.refreshCookie)) {
+        throw error
+      }
+      try {
+        token = await refresh(session)
+      } catch {
+        throw error
+      }
+    }
+    config._retried = true
+    config.headers.Authorization = `Bearer ${token}`
+    return axios(config)
+  })
+}
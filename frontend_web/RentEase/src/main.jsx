@@ -3,6 +3,9 @@ import { createRoot } from 'react-dom/client'
 import "./index.css"
 import { ThemeProvider } from "@material-tailwind/react"
 import App from './App.jsx'
+import { setupAuthRefresh } from './authRefresh.js'
+
+setupAuthRefresh()
 
 createRoot(document.getElementById('root')).render(
   <ThemeProvider>
@@ -18,8 +18,9 @@ function RenterLogin() {
     e.preventDefault()
     try {
       const response = await axios.post(`${API_BASE_URL}/api/renters/login`, { email, password })
-      const { jwt } = response.data
+      const { jwt, refreshToken } = response.data
       Cookies.set("renterToken", jwt, { expires: 1 })
+      Cookies.set("renterRefreshToken", refreshToken, { expires: 30 })
 
       // Decode the JWT to verify contents (optional, for logging)
       const decodedToken = jwtDecode(jwt)
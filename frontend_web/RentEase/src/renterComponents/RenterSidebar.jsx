@@ -9,6 +9,7 @@ const RenterSidebar = ({ isDrawerOpen, openDrawer, closeDrawer }) => {
 
   const handleLogout = () => {
     Cookies.remove("renterToken")
+    Cookies.remove("renterRefreshToken")
     navigate("/renter-login")
   }
 